@@ -0,0 +1,123 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Сравнивает JSON-отчёт JMH с сохранённым baseline.
+ * <p>
+ * Бенчмарки сопоставляются по имени и параметрам. Результат считается регрессией, если он хуже
+ * baseline больше чем на {@code threshold} (доля, 0.25 = 25%) и разница не укладывается в сумму
+ * погрешностей обоих замеров. Замедление больше порога, которое тонет в погрешности, помечается
+ * {@code NOISY} и перечисляется в конце: такой замер ничего не доказывает, и его нужно повторить
+ * с большим числом итераций или снять baseline заново на машине сравнения.
+ * При регрессиях процесс завершается с кодом 1.
+ * <p>
+ * Аргументы: {@code <baseline.json> <result.json> [threshold]}.
+ */
+public final class BaselineComparison {
+    private static final double DEFAULT_THRESHOLD = 0.25;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> [threshold]");
+            System.exit(2);
+        }
+        Path baselinePath = Path.of(args[0]);
+        Path resultPath = Path.of(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        if (!Files.exists(baselinePath)) {
+            System.out.println("Baseline " + baselinePath + " not found; record it on this machine by copying "
+                    + resultPath + " there (see benchmarks/pom.xml)");
+            return;
+        }
+
+        Map<String, Score> baseline = read(baselinePath);
+        Map<String, Score> result = read(resultPath);
+        List<String> regressions = new ArrayList<>();
+        List<String> noisy = new ArrayList<>();
+
+        System.out.printf("%-75s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : result.entrySet()) {
+            Score current = entry.getValue();
+            Score base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-75s %14s %14s %9s%n", entry.getKey(), "-", current.format(), "new");
+                continue;
+            }
+            // для avgt/ss/sample меньше — лучше, для thrpt — больше
+            double change = (current.value() - base.value()) / base.value();
+            double slowdown = current.higherIsBetter() ? -change : change;
+            boolean beyondError = Math.abs(current.value() - base.value()) > current.error() + base.error();
+            boolean regression = slowdown > threshold && beyondError;
+            boolean withinNoise = slowdown > threshold && !beyondError;
+
+            System.out.printf("%-75s %14s %14s %+8.1f%%%s%n", entry.getKey(), base.format(), current.format(),
+                    change * 100, regression ? "  REGRESSION" : withinNoise ? "  NOISY" : "");
+            if (regression) {
+                regressions.add(entry.getKey());
+            } else if (withinNoise) {
+                noisy.add(entry.getKey());
+            }
+        }
+
+        if (!noisy.isEmpty()) {
+            System.out.printf("%d benchmark(s) slower than baseline by more than %.0f%% but within the measurement error: %s%n",
+                    noisy.size(), threshold * 100, noisy);
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) slower than baseline by more than %.0f%%: %s%n",
+                    regressions.size(), threshold * 100, regressions);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(path.toFile())) {
+            JsonNode metric = run.get("primaryMetric");
+            scores.put(key(run), new Score(
+                    metric.get("score").asDouble(),
+                    metric.path("scoreError").asDouble(0),
+                    metric.get("scoreUnit").asText(),
+                    "thrpt".equals(run.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode run) {
+        String name = run.get("benchmark").asText().replace(BaselineComparison.class.getPackageName() + ".", "");
+        JsonNode params = run.get("params");
+        if (params == null || params.isEmpty()) {
+            return name;
+        }
+        StringJoiner joiner = new StringJoiner(", ", name + " [", "]");
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            joiner.add(field.getKey() + "=" + field.getValue().asText());
+        }
+        return joiner.toString();
+    }
+
+    private record Score(double value, double error, String unit, boolean higherIsBetter) {
+        String format() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.dto.ItemBookingShortView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Детерминированные данные для бенчмарков: один и тот же seed даёт одинаковые наборы
+ * на каждом прогоне, поэтому результаты сравнимы с baseline.
+ */
+final class Fixtures {
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    static final User OWNER = User.builder().id(1L).name("Owner").email("owner@mail.com").version(0L).build();
+
+    private static final String[] WORDS = {
+        "дрель", "перфоратор", "шуруповёрт", "лестница", "палатка", "велосипед", "самокат", "пила",
+        "молоток", "рюкзак", "спальник", "проектор", "колонка", "фотоаппарат", "штатив", "лодка",
+        "drill", "ladder", "tent", "bike", "saw", "hammer", "projector", "camera", "tripod", "kayak",
+        "мощный", "лёгкий", "складной", "новый", "аккумуляторный", "профессиональный", "детский", "большой"
+    };
+
+    private Fixtures() {
+    }
+
+    static List<Item> items(int count, long seed) {
+        Random random = new Random(seed);
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name(phrase(random, 2))
+                    .description(phrase(random, 12))
+                    .available(random.nextInt(10) < 8)
+                    .owner(OWNER)
+                    .request(id % 5 == 0 ? ItemRequest.builder().id(id / 5).build() : null)
+                    .version(0L)
+                    .build());
+        }
+        return items;
+    }
+
+    static List<Booking> bookings(List<Item> items, int count) {
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = items.get(i % items.size());
+            User booker = User.builder().id(100L + i % 50).name("Booker " + i % 50).build();
+            LocalDateTime start = NOW.minusDays(30).plusHours(i * 7L);
+            bookings.add(Booking.builder()
+                    .id((long) i + 1)
+                    .start(start)
+                    .end(start.plusDays(2))
+                    .item(item)
+                    .ownerId(OWNER.getId())
+                    .booker(booker)
+                    .status(statuses[i % statuses.length])
+                    .version(0L)
+                    .build());
+        }
+        return bookings;
+    }
+
+    static List<Comment> comments(List<Item> items, int perItem) {
+        List<Comment> comments = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                User author = User.builder().id(100L + i).name("Author " + i).build();
+                comments.add(Comment.builder()
+                        .id(id++)
+                        .text("Отличная вещь, всё работает, брал на выходные " + i)
+                        .item(item)
+                        .author(author)
+                        .created(NOW.minusDays(i + 1))
+                        .build());
+            }
+        }
+        return comments;
+    }
+
+    /**
+     * Прошлая или будущая бронь для каждой второй вещи — как отдаёт {@code ItemAvailability}.
+     */
+    static List<ItemBookingShortView> bookingViews(List<Item> items, boolean past) {
+        List<ItemBookingShortView> views = new ArrayList<>(items.size() / 2 + 1);
+        for (int i = 0; i < items.size(); i += 2) {
+            Item item = items.get(i);
+            LocalDateTime start = past ? NOW.minusDays(3) : NOW.plusDays(3);
+            views.add(new ItemBookingShortView(item.getId(), item.getId() * 10 + (past ? 1 : 2), 100L + i % 50,
+                    start, start.plusDays(1)));
+        }
+        return views;
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+}
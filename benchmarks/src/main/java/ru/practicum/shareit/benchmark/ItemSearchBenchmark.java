@@ -0,0 +1,64 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск доступных вещей по подстроке: перебор {@link InMemoryItemStorage} против
+ * триграммного {@link ItemSearchIndex}, который использует движок {@code index}.
+ * Индекс вызывается без ограничения числа результатов, чтобы оба возвращали все совпадения.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int items;
+
+    // частое слово, редкое сочетание, запрос короче триграммы, нет совпадений
+    @Param({"дрель", "складной kayak", "ка", "нет такой вещи"})
+    public String query;
+
+    private InMemoryItemStorage storage;
+    private ItemSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryItemStorage();
+        index = new ItemSearchIndex();
+        for (Item item : Fixtures.items(items, 42)) {
+            storage.add(item);
+            index.index(new ItemSearchIndex.Document(item.getId(), item.getName(), item.getDescription(),
+                    item.getAvailable(), null));
+        }
+    }
+
+    @Benchmark
+    public List<Item> inMemoryStorage() {
+        return storage.searchAvailable(query);
+    }
+
+    @Benchmark
+    public List<ItemSearchIndex.Document> trigramIndex() {
+        return index.search(query, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.availability.ItemAvailability;
+import ru.practicum.shareit.booking.dto.BookingShortMapperImpl;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentMapperImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemCardProperties;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Сборка списка вещей владельца в {@link ItemServiceImpl#getAll}: группировка броней и комментариев
+ * по вещам и маппинг в DTO. Репозитории заменены заглушками Mockito с готовыми данными,
+ * поэтому в замер входит только логика сервиса и постоянная стоимость вызова заглушек.
+ * Заглушки {@code stubOnly}: обычный mock запоминает каждый вызов, и за прогон куча растёт
+ * вместе с числом операций, а паузы GC превращаются в шум больше самого результата.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceGetAllBenchmark {
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"10", "100", "1000"})
+    public int items;
+
+    private ItemServiceImpl itemService;
+
+    @Setup
+    public void setUp() {
+        List<Item> owned = Fixtures.items(items, 42);
+
+        ItemRepository itemRepository = stub(ItemRepository.class);
+        when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong())).thenReturn(owned);
+
+        ItemAvailability itemAvailability = stub(ItemAvailability.class);
+        when(itemAvailability.findLastApproved(anyCollection(), any()))
+                .thenReturn(Fixtures.bookingViews(owned, true));
+        when(itemAvailability.findNextApproved(anyCollection(), any()))
+                .thenReturn(Fixtures.bookingViews(owned, false));
+
+        CommentRepository commentRepository = stub(CommentRepository.class);
+        when(commentRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(Fixtures.comments(owned, COMMENTS_PER_ITEM));
+
+        itemService = new ItemServiceImpl(
+                itemRepository,
+                stub(UserExistenceGuard.class),
+                stub(BookingRepository.class),
+                itemAvailability,
+                commentRepository,
+                stub(ItemRequestRepository.class),
+                stub(ItemSearchEngine.class),
+                new ItemMapperImpl(),
+                new BookingShortMapperImpl(),
+                new CommentMapperImpl(),
+                event -> { },
+                new ItemCardProperties(20));
+    }
+
+    @Benchmark
+    public List<ItemDto> getAll() {
+        return itemService.getAll(Fixtures.OWNER.getId());
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+}
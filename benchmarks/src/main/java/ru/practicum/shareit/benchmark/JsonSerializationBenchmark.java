@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapperImpl;
+import ru.practicum.shareit.booking.dto.BookingShortMapperImpl;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapperImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сериализация ответов со списками вещей и броней тем же {@code ObjectMapper}, что строит Spring Boot:
+ * Java Time без timestamps. Вещи — с последней/следующей бронью и комментариями, как в {@code GET /items}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectWriter itemsWriter;
+    private ObjectWriter bookingsWriter;
+    private List<ItemDto> itemDtos;
+    private List<BookingDto> bookingDtos;
+
+    @Setup
+    public void setUp() {
+        var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        itemsWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ItemDto.class));
+        bookingsWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, BookingDto.class));
+
+        List<Item> items = Fixtures.items(size, 42);
+        ItemMapperImpl itemMapper = new ItemMapperImpl();
+        BookingShortMapperImpl bookingShortMapper = new BookingShortMapperImpl();
+        CommentMapperImpl commentMapper = new CommentMapperImpl();
+
+        Map<Long, List<CommentDto>> comments = Fixtures.comments(items, 3).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+        Map<Long, ItemDto> dtos = items.stream()
+                .collect(Collectors.toMap(Item::getId, itemMapper::toDto));
+        Fixtures.bookingViews(items, true)
+                .forEach(view -> dtos.get(view.itemId()).setLastBooking(bookingShortMapper.toDto(view)));
+        Fixtures.bookingViews(items, false)
+                .forEach(view -> dtos.get(view.itemId()).setNextBooking(bookingShortMapper.toDto(view)));
+        itemDtos = items.stream()
+                .map(item -> {
+                    ItemDto dto = dtos.get(item.getId());
+                    dto.setComments(comments.getOrDefault(item.getId(), List.of()));
+                    return dto;
+                })
+                .toList();
+
+        BookingMapperImpl bookingMapper = new BookingMapperImpl();
+        bookingDtos = Fixtures.bookings(items, size).stream()
+                .map(bookingMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] items() throws Exception {
+        return itemsWriter.writeValueAsBytes(itemDtos);
+    }
+
+    @Benchmark
+    public byte[] bookings() throws Exception {
+        return bookingsWriter.writeValueAsBytes(bookingDtos);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.CommentMapperImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сущность ↔ DTO сгенерированными MapStruct-мапперами, по 100 объектов за вызов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int SIZE = 100;
+
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+
+    private List<Item> items;
+    private List<ItemDto> itemDtos;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        items = Fixtures.items(SIZE, 42);
+        itemDtos = items.stream().map(itemMapper::toDto).toList();
+        bookings = Fixtures.bookings(items, SIZE);
+        comments = Fixtures.comments(items.subList(0, SIZE / 4), 4);
+    }
+
+    @Benchmark
+    public void bookingToDto(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(bookingMapper.toDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void itemToDto(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(itemMapper.toDto(item));
+        }
+    }
+
+    @Benchmark
+    public void itemToModel(Blackhole blackhole) {
+        for (ItemDto dto : itemDtos) {
+            blackhole.consume(itemMapper.toModel(dto));
+        }
+    }
+
+    @Benchmark
+    public void commentToDto(Blackhole blackhole) {
+        for (Comment comment : comments) {
+            blackhole.consume(commentMapper.toDto(comment));
+        }
+    }
+}
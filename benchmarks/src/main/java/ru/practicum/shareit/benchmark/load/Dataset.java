@@ -0,0 +1,156 @@
+package ru.practicum.shareit.benchmark.load;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Набор данных нагрузочного теста и его загрузка в базу JDBC-пакетами.
+ * <p>
+ * Данные пишутся до старта сервера, поэтому индексы, которые сервер строит при старте
+ * (поиск, занятость вещей, известные пользователи), сразу видят весь набор. Явные id
+ * сдвигают счётчики IDENTITY и {@code items_seq} за конец набора, чтобы трафик мог создавать строки.
+ */
+final class Dataset {
+    static final String[] WORDS = {
+        "дрель", "перфоратор", "шуруповёрт", "лестница", "палатка", "велосипед", "самокат", "пила",
+        "молоток", "рюкзак", "спальник", "проектор", "колонка", "фотоаппарат", "штатив", "лодка",
+        "drill", "ladder", "tent", "bike", "saw", "hammer", "projector", "camera", "tripod", "kayak",
+        "мощный", "лёгкий", "складной", "новый", "аккумуляторный", "профессиональный", "детский", "большой"
+    };
+    private static final int BATCH = 1_000;
+
+    final int users;
+    final long[] itemOwner;
+    final boolean[] itemAvailable;
+
+    private Dataset(int users, int items) {
+        this.users = users;
+        this.itemOwner = new long[items + 1];
+        this.itemAvailable = new boolean[items + 1];
+    }
+
+    static Dataset seed(DataSource dataSource, LoadTestProperties properties) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        }
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Random random = new Random(properties.seed());
+        Dataset dataset = new Dataset(properties.users(), properties.items());
+        LocalDateTime now = LocalDateTime.now();
+
+        insert(jdbc, "insert into users (id, name, email) values (?, ?, ?)", properties.users(),
+                id -> new Object[]{id, "User " + id, "user" + id + "@shareit.test"});
+
+        insert(jdbc, "insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                properties.requests(),
+                id -> new Object[]{id, "Нужен " + word(random) + " на выходные", dataset.randomUser(random),
+                        Timestamp.valueOf(now.minusHours(random.nextInt(24 * 365)))});
+
+        insert(jdbc, "insert into items (id, name, description, available, owner_id, request_id) values (?, ?, ?, ?, ?, ?)",
+                properties.items(),
+                id -> {
+                    long owner = dataset.randomUser(random);
+                    boolean available = random.nextInt(10) < 8;
+                    dataset.itemOwner[id] = owner;
+                    dataset.itemAvailable[id] = available;
+                    Long request = properties.requests() > 0 && random.nextInt(10) == 0
+                            ? 1L + random.nextInt(properties.requests()) : null;
+                    return new Object[]{id, word(random) + " " + word(random), phrase(random, 12), available, owner, request};
+                });
+
+        // брони вещи идут друг за другом по 4 дня, начиная с года назад: в прошлом подтверждённые и отклонённые,
+        // в будущем ожидающие и подтверждённые
+        LocalDateTime first = now.minusDays(365);
+        insert(jdbc, "insert into bookings (id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                        + "values (?, ?, ?, ?, ?, ?, ?)",
+                properties.bookings(),
+                id -> {
+                    int item = 1 + (id - 1) % properties.items();
+                    int slot = (id - 1) / properties.items();
+                    LocalDateTime start = first.plusDays(slot * 4L).plusHours(random.nextInt(24));
+                    LocalDateTime end = start.plusDays(1 + random.nextInt(2));
+                    String status = end.isBefore(now)
+                            ? (random.nextInt(10) == 0 ? "REJECTED" : "APPROVED")
+                            : (random.nextBoolean() ? "WAITING" : "APPROVED");
+                    long owner = dataset.itemOwner[item];
+                    return new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(end), item, owner,
+                            dataset.randomUserExcept(random, owner), status};
+                });
+
+        insert(jdbc, "insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                properties.comments(),
+                id -> {
+                    int item = 1 + random.nextInt(properties.items());
+                    return new Object[]{id, phrase(random, 8), item,
+                            dataset.randomUserExcept(random, dataset.itemOwner[item]),
+                            Timestamp.valueOf(now.minusHours(random.nextInt(24 * 365)))};
+                });
+
+        restartIdentity(jdbc, "users", properties.users());
+        restartIdentity(jdbc, "requests", properties.requests());
+        restartIdentity(jdbc, "bookings", properties.bookings());
+        restartIdentity(jdbc, "comments", properties.comments());
+        // pooled-оптимизатор выдаёт id из блока до значения последовательности: запас в один блок
+        jdbc.execute("ALTER SEQUENCE items_seq RESTART WITH " + (properties.items() + 100));
+        jdbc.execute("ANALYZE");
+        return dataset;
+    }
+
+    long randomUser(Random random) {
+        return 1L + random.nextInt(users);
+    }
+
+    long randomUserExcept(Random random, long user) {
+        return 1L + (user + random.nextInt(users - 1)) % users;
+    }
+
+    int items() {
+        return itemOwner.length - 1;
+    }
+
+    static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder(word(random));
+        for (int i = 1; i < words; i++) {
+            phrase.append(' ').append(word(random));
+        }
+        return phrase.toString();
+    }
+
+    private static void restartIdentity(JdbcTemplate jdbc, String table, int rows) {
+        jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (rows + 1));
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, int count, Row row) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int id = 1; id <= count; id++) {
+            batch.add(row.values(id));
+            if (batch.size() == BATCH) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Row {
+        Object[] values(int id);
+    }
+}
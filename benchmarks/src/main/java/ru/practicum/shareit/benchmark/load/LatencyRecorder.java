@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmark.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки по эндпоинтам в HdrHistogram (микросекунды, 3 значащие цифры).
+ * <p>
+ * Клиенты работают в замкнутом цикле: следующий запрос уходит после ответа на предыдущий,
+ * поэтому гистограммы показывают время обслуживания, а не задержку при фиксированном входящем потоке.
+ */
+final class LatencyRecorder {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long startNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), MAX_LATENCY_MICROS);
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.histogram.recordValue(micros);
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    void reset() {
+        endpoints.values().forEach(Endpoint::reset);
+    }
+
+    /**
+     * Печатает сводную таблицу и пишет для каждого эндпоинта распределение в формате {@code .hgrm}
+     * (миллисекунды), которое можно сравнить между прогонами или построить в HdrHistogram plotter.
+     */
+    void report(Duration elapsed, Path directory, PrintStream out) throws IOException {
+        Files.createDirectories(directory);
+        Map<String, Endpoint> sorted = new TreeMap<>(endpoints);
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-28s %9s %7s %8s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "RPS", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Map.Entry<String, Endpoint> entry : sorted.entrySet()) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            summary.append(String.format("%-28s %9d %7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    entry.getValue().errors.sum(),
+                    histogram.getTotalCount() / (elapsed.toMillis() / MICROS_PER_MILLI),
+                    millis(histogram, 50),
+                    millis(histogram, 90),
+                    millis(histogram, 99),
+                    millis(histogram, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI));
+
+            Path file = directory.resolve(fileName(entry.getKey()));
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            }
+        }
+
+        out.print(summary);
+        Files.writeString(directory.resolve("summary.txt"), summary, StandardCharsets.UTF_8);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+    }
+
+    private static final class Endpoint {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+
+        void reset() {
+            histogram.reset();
+            errors.reset();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmark.load;
+
+import org.apache.catalina.webresources.TomcatURLStreamHandlerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Нагрузочный тест: сервер и gateway в одном процессе, засеянная H2 и смешанный трафик.
+ * <p>
+ * Сервер стартует в этом classpath с профилем {@code test}. Gateway запускается из своего
+ * исполняемого jar в отдельном загрузчике классов: его {@code @SpringBootApplication} сканирует
+ * {@code ru.practicum} и в общем classpath подхватил бы бины сервера, а {@code application.properties}
+ * двух приложений перекрывали бы друг друга.
+ * <p>
+ * Запуск: {@code mvn -B -pl gateway,benchmarks -am -Pload-test -DskipTests verify}; параметры —
+ * свойства {@code loadtest.*} (см. {@link LoadTestProperties}) в командной строке Maven.
+ */
+public final class LoadTest {
+    private static final String DATABASE_URL =
+            "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false";
+    // при семплировании каждого запроса сериализация спанов в OTLP JSON вошла бы в измеряемые задержки
+    private static final String NO_TRACING = "--management.tracing.enabled=false";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) {
+        int status = 1;
+        try {
+            run(LoadTestProperties.fromSystemProperties());
+            status = 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        // gateway живёт в своём загрузчике классов без ссылки на контекст: останавливается вместе с JVM
+        System.exit(status);
+    }
+
+    private static void run(LoadTestProperties properties) throws Exception {
+        if (!Files.isRegularFile(properties.gatewayJar())) {
+            throw new IllegalArgumentException("Нет jar gateway: " + properties.gatewayJar());
+        }
+
+        long seeding = System.nanoTime();
+        Dataset dataset = Dataset.seed(new DriverManagerDataSource(DATABASE_URL, "sa", ""), properties);
+        System.out.printf("Seeded %d users, %d items, %d requests, %d bookings, %d comments in %d ms%n",
+                properties.users(), properties.items(), properties.requests(), properties.bookings(),
+                properties.comments(), Duration.ofNanos(System.nanoTime() - seeding).toMillis());
+
+        // фабрика URL-обработчиков в JVM одна: её регистрирует Tomcat gateway, Tomcat сервера обходится без неё
+        TomcatURLStreamHandlerFactory.disable();
+        ConfigurableApplicationContext server = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + DATABASE_URL,
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN",
+                        NO_TRACING);
+        int serverPort = ((WebServerApplicationContext) server).getWebServer().getPort();
+
+        int gatewayPort = freePort();
+        startGateway(properties,
+                "--server.port=" + gatewayPort,
+                "--shareit-server.url=http://localhost:" + serverPort,
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=WARN",
+                NO_TRACING);
+        System.out.printf("Server on port %d, gateway on port %d%n", serverPort, gatewayPort);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            Workload workload = new Workload(client, URI.create("http://localhost:" + gatewayPort), dataset, recorder,
+                    properties.mix());
+
+            System.out.printf("Warm-up %d s, %d clients%n", properties.warmup().toSeconds(), properties.concurrency());
+            drive(workload, properties, properties.warmup(), 0);
+            recorder.reset();
+
+            System.out.printf("Measuring %d s, mix %s%n", properties.duration().toSeconds(), properties.mix());
+            long measuring = System.nanoTime();
+            drive(workload, properties, properties.duration(), 1);
+            recorder.report(Duration.ofNanos(System.nanoTime() - measuring), properties.reportDir(), System.out);
+        } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * Каждый клиент — виртуальный поток, который до истечения {@code duration} выполняет случайные сценарии.
+     * Seed клиента зависит от фазы, поэтому прогрев и замер не повторяют одну и ту же последовательность.
+     */
+    private static void drive(Workload workload, LoadTestProperties properties, Duration duration, int phase)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>(properties.concurrency());
+            for (int i = 0; i < properties.concurrency(); i++) {
+                Random random = new Random(properties.seed() * 31 + phase * 1_000_003L + i);
+                running.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        workload.runOnce(random);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        }
+    }
+
+    private static void startGateway(LoadTestProperties properties, String... args) throws Exception {
+        URLClassLoader loader = new URLClassLoader("gateway", new URL[]{properties.gatewayJar().toUri().toURL()},
+                ClassLoader.getPlatformClassLoader());
+        Method main = loader.loadClass("org.springframework.boot.loader.launch.JarLauncher")
+                .getMethod("main", String[].class);
+        // JarLauncher подменяет context class loader потока, поэтому запускается в своём потоке;
+        // main возвращается, когда приложение поднято
+        FutureTask<Void> launch = new FutureTask<>(() -> {
+            main.invoke(null, (Object) args);
+            return null;
+        });
+        new Thread(launch, "gateway-launcher").start();
+        launch.get();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста, читаются из системных свойств {@code loadtest.*}.
+ *
+ * @param gatewayJar  исполняемый jar gateway ({@code gateway/target/*-exec.jar})
+ * @param reportDir   каталог для отчёта и гистограмм
+ * @param users       пользователей в наборе данных
+ * @param items       вещей
+ * @param requests    запросов вещей
+ * @param bookings    броней
+ * @param comments    комментариев
+ * @param concurrency одновременных виртуальных клиентов
+ * @param warmup      прогрев: трафик идёт, но не попадает в отчёт
+ * @param duration    замер
+ * @param mix         доли сценариев, например {@code search=60,dashboard=25,booking=15}
+ * @param seed        seed генератора данных и трафика
+ */
+record LoadTestProperties(
+        Path gatewayJar,
+        Path reportDir,
+        int users,
+        int items,
+        int requests,
+        int bookings,
+        int comments,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Scenario, Integer> mix,
+        long seed
+) {
+    private static final String PREFIX = "loadtest.";
+
+    static LoadTestProperties fromSystemProperties() {
+        String gatewayJar = System.getProperty(PREFIX + "gateway-jar");
+        if (gatewayJar == null) {
+            throw new IllegalArgumentException("Не задан -D" + PREFIX + "gateway-jar");
+        }
+        return new LoadTestProperties(
+                Path.of(gatewayJar),
+                Path.of(string("report-dir", "target/loadtest")),
+                integer("users", 1_000),
+                integer("items", 20_000),
+                integer("requests", 2_000),
+                integer("bookings", 50_000),
+                integer("comments", 20_000),
+                integer("concurrency", 64),
+                Duration.ofSeconds(integer("warmup-seconds", 60)),
+                Duration.ofSeconds(integer("duration-seconds", 60)),
+                mix(string("mix", "search=60,dashboard=25,booking=15")),
+                Long.parseLong(string("seed", "42")));
+    }
+
+    private static String string(String name, String defaultValue) {
+        String value = System.getProperty(PREFIX + name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static int integer(String name, int defaultValue) {
+        return Integer.parseInt(string(name, String.valueOf(defaultValue)));
+    }
+
+    private static Map<Scenario, Integer> mix(String value) {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] weight = part.split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Некорректная доля сценария: " + part);
+            }
+            mix.put(Scenario.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+}
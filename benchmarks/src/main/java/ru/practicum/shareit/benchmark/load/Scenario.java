@@ -0,0 +1,19 @@
+package ru.practicum.shareit.benchmark.load;
+
+/**
+ * Сценарии смешанного трафика; доли задаёт {@code loadtest.mix}.
+ */
+enum Scenario {
+    /**
+     * Поиск по слову или его фрагменту и открытие карточки найденной вещи.
+     */
+    SEARCH,
+    /**
+     * Кабинет владельца: его вещи с бронями и комментариями, все и ожидающие брони.
+     */
+    DASHBOARD,
+    /**
+     * Всплеск бронирований: создание брони, решение владельца, список броней арендатора.
+     */
+    BOOKING
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * HTTP-сценарии против gateway. Каждый вызов попадает в {@link LatencyRecorder} под шаблоном пути,
+ * ответы 4xx/5xx и ошибки соединения считаются ошибками эндпоинта.
+ */
+final class Workload {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int PAGE_SIZE = 20;
+    // новые брони — за пределами засеянных, чтобы конфликтовали только между собой
+    private static final int BOOKING_HORIZON_DAYS = 3 * 365;
+
+    private final HttpClient client;
+    private final URI gateway;
+    private final Dataset dataset;
+    private final LatencyRecorder recorder;
+    private final Map<Scenario, Integer> mix;
+    private final int totalWeight;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    Workload(HttpClient client, URI gateway, Dataset dataset, LatencyRecorder recorder, Map<Scenario, Integer> mix) {
+        this.client = client;
+        this.gateway = gateway;
+        this.dataset = dataset;
+        this.recorder = recorder;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    void runOnce(Random random) throws InterruptedException {
+        switch (pick(random)) {
+            case SEARCH -> search(random);
+            case DASHBOARD -> dashboard(random);
+            case BOOKING -> booking(random);
+        }
+    }
+
+    private Scenario pick(Random random) {
+        int point = random.nextInt(totalWeight);
+        for (Map.Entry<Scenario, Integer> entry : mix.entrySet()) {
+            point -= entry.getValue();
+            if (point < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Пустая смесь сценариев");
+    }
+
+    private void search(Random random) throws InterruptedException {
+        String word = Dataset.word(random);
+        // целое слово или фрагмент от трёх символов: часть запросов не попадает в кэш поиска gateway
+        String text = random.nextBoolean() || word.length() <= 3
+                ? word
+                : word.substring(0, 3 + random.nextInt(word.length() - 3));
+        long user = dataset.randomUser(random);
+        JsonNode found = get("GET /items/search", "/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8),
+                user);
+        if (found != null && found.isArray() && !found.isEmpty()) {
+            long itemId = found.get(random.nextInt(found.size())).path("id").asLong();
+            get("GET /items/{id}", "/items/" + itemId, user);
+        }
+    }
+
+    private void dashboard(Random random) throws InterruptedException {
+        long owner = dataset.itemOwner[1 + random.nextInt(dataset.items())];
+        get("GET /items", "/items", owner);
+        get("GET /bookings/owner", "/bookings/owner?state=ALL&size=" + PAGE_SIZE, owner);
+        get("GET /bookings/owner WAITING", "/bookings/owner?state=WAITING&size=" + PAGE_SIZE, owner);
+    }
+
+    private void booking(Random random) throws InterruptedException {
+        int item = availableItem(random);
+        long owner = dataset.itemOwner[item];
+        long booker = dataset.randomUserExcept(random, owner);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                .plusDays(1 + random.nextInt(BOOKING_HORIZON_DAYS))
+                .plusHours(random.nextInt(24));
+        String body = "{\"itemId\":" + item + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}";
+
+        JsonNode created = send("POST /bookings", HttpRequest.newBuilder(gateway.resolve("/bookings"))
+                .header(USER_ID_HEADER, String.valueOf(booker))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        if (created != null && created.hasNonNull("id")) {
+            send("PATCH /bookings/{id}", HttpRequest.newBuilder(
+                            gateway.resolve("/bookings/" + created.get("id").asLong() + "?approved=" + random.nextBoolean()))
+                    .header(USER_ID_HEADER, String.valueOf(owner))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build());
+        }
+        get("GET /bookings", "/bookings?state=FUTURE&size=" + PAGE_SIZE, booker);
+    }
+
+    private int availableItem(Random random) {
+        while (true) {
+            int item = 1 + random.nextInt(dataset.items());
+            if (dataset.itemAvailable[item]) {
+                return item;
+            }
+        }
+    }
+
+    private JsonNode get(String endpoint, String path, long user) throws InterruptedException {
+        return send(endpoint, HttpRequest.newBuilder(gateway.resolve(path))
+                .header(USER_ID_HEADER, String.valueOf(user))
+                .GET()
+                .build());
+    }
+
+    private JsonNode send(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean success = response.statusCode() < 400;
+            recorder.record(endpoint, start, success);
+            return success && response.body().length > 0 ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            recorder.record(endpoint, start, false);
+            return null;
+        }
+    }
+}
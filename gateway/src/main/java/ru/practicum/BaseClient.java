@@ -1,122 +1,248 @@
 package ru.practicum;
 
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-
-import org.springframework.http.HttpEntity;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    // заголовки уровня соединения: ответ клиенту Tomcat оформляет сам
+    private static final List<String> TRANSPORT_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, "Keep-Alive");
+
+    private static final String CLIENT_TIMER = "shareit.gateway.client.requests";
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final WebClient webClient;
+    private final String apiPrefix;
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    public BaseClient(WebClient webClient, String apiPrefix) {
+        this.webClient = webClient;
+        this.apiPrefix = apiPrefix;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    /**
+     * Реестр таймеров запросов к серверу; без него (в тестах клиентов) — глобальный реестр Micrometer.
+     */
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return get(path, userId, parameters, null);
+    }
+
+    /**
+     * Условный GET: {@code If-None-Match} клиента уходит на сервер, а его 304 с ETag возвращается клиенту.
+     */
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                               @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
+    }
+
+    /**
+     * Выгрузка: тело ответа сервера (и успешного, и ошибки) пишется клиенту кусками по мере
+     * получения, не собирается в памяти шлюза и не ограничено {@code max-in-memory-size}.
+     */
+    protected Mono<ResponseEntity<StreamingResponseBody>> getStream(String path, long userId, MediaType accept) {
+        return webClient.get()
+                .uri(apiPrefix + path)
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    headers.setAccept(List.of(accept, MediaType.APPLICATION_JSON));
+                })
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                        .headers(withoutTransportHeaders(entity.getHeaders()))
+                        .body(out -> copy(entity.getBody(), out)));
+    }
+
+    /**
+     * Копирует тело в ответ на потоке {@link StreamingResponseBody}, а не на event loop WebClient:
+     * запись в servlet-поток блокирующая. Очередь между ними ограничена, так что медленный клиент
+     * притормаживает чтение с сервера. Закрытие потока при обрыве отменяет запрос к серверу.
+     */
+    private static void copy(Flux<DataBuffer> body, OutputStream out) throws IOException {
+        try (Stream<DataBuffer> buffers = body.doOnDiscard(DataBuffer.class, DataBufferUtils::release).toStream()) {
+            Iterator<DataBuffer> iterator = buffers.iterator();
+            while (iterator.hasNext()) {
+                try (InputStream in = iterator.next().asInputStream(true)) {
+                    in.transferTo(out);
+                }
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Тело уходит на сервер по мере чтения из {@code body}, без сборки в памяти шлюза.
+     */
+    protected Mono<ResponseEntity<Object>> postStream(String path, long userId, MediaType contentType,
+                                                      Flux<DataBuffer> body) {
+        return webClient.post()
+                .uri(apiPrefix + path)
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    headers.setContentType(contentType);
+                })
+                .body(BodyInserters.fromDataBuffers(body))
+                .exchangeToMono(BaseClient::prepareGatewayResponse);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                                @Nullable String ifNoneMatch) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(apiPrefix + path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    if (ifNoneMatch != null) {
+                        headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+                    }
+                });
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+        WebClient.RequestHeadersSpec<?> exchange = body != null ? request.bodyValue(body) : request;
+        // время от подписки до готового ответа: вместе с http.server.requests показывает, где задержка — в шлюзе или на сервере
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return exchange.exchangeToMono(BaseClient::prepareGatewayResponse)
+                    .doOnSuccess(response -> sample.stop(clientTimer(method,
+                            response != null ? Outcome.forStatus(response.getStatusCode().value()).name() : "UNKNOWN")))
+                    .doOnError(e -> sample.stop(clientTimer(method, "ERROR")));
+        });
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private Timer clientTimer(HttpMethod method, String outcome) {
+        return Timer.builder(CLIENT_TIMER)
+                .description("Запросы шлюза к shareit-server")
+                .tag("client", getClass().getSimpleName())
+                .tag("method", method.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
+    /**
+     * Тело ответа сервера — и успешного, и ошибки — отдаётся клиенту теми же байтами, без разбора
+     * в дерево объектов и повторной сериализации: шлюз уже провалидировал запрос, а формат ответа
+     * определяет сервер.
+     * <p>
+     * Тело собирается в память целиком, а не передаётся потоком, как в {@link #getStream}: поиск
+     * кэширует и хэширует готовые байты ({@code ItemSearchCache}), контроллеры читают заголовки
+     * ответа до того, как начать свой, а таймер запроса к серверу останавливается на полном ответе.
+     * Ответы этих методов — одна сущность или страница списка, поэтому размер ограничен
+     * {@code shareit-server.max-in-memory-size}; больший ответ завершается
+     * {@link org.springframework.core.io.buffer.DataBufferLimitException}, и {@code ErrorHandler}
+     * отвечает 502. Неограниченные выгрузки идут через {@link #getStream} и {@link #postStream}.
+     */
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        return response.toEntity(byte[].class)
+                .map(entity -> {
+                    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(entity.getStatusCode())
+                            .headers(withoutTransportHeaders(entity.getHeaders()));
+                    if (!entity.hasBody()) {
+                        return responseBuilder.<Object>build();
+                    }
+                    return responseBuilder.<Object>body(entity.getBody());
+                });
+    }
+
+    private static HttpHeaders withoutTransportHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (TRANSPORT_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
     }
 }
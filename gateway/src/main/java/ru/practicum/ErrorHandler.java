@@ -1,10 +1,12 @@
 package ru.practicum;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import java.util.Map;
 
@@ -16,5 +18,17 @@ public class ErrorHandler {
     public Map<String, String> handleBadRequest(Exception e) {
         return Map.of("error", e.getMessage());
     }
+
+    @ExceptionHandler(WebClientRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public Map<String, String> handleServerUnavailable(WebClientRequestException e) {
+        return Map.of("error", "Сервер недоступен: " + e.getMostSpecificCause().getMessage());
+    }
+
+    @ExceptionHandler(DataBufferLimitException.class)
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public Map<String, String> handleServerResponseTooLarge(DataBufferLimitException e) {
+        return Map.of("error", "Ответ сервера слишком большой: " + e.getMessage());
+    }
 }
 
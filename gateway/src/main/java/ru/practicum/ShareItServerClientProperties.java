@@ -0,0 +1,34 @@
+package ru.practicum;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего HTTP-клиента к shareit-server.
+ *
+ * @param url                   базовый адрес сервера
+ * @param maxConnections        максимум одновременно открытых соединений в пуле
+ * @param pendingAcquireMaxSize сколько запросов может ждать свободное соединение
+ * @param pendingAcquireTimeout сколько запрос ждёт свободное соединение
+ * @param maxIdleTime           сколько простаивающее keep-alive соединение остаётся в пуле
+ * @param connectTimeout        таймаут установки соединения
+ * @param responseTimeout       таймаут ответа сервера
+ * @param maxInMemorySize       максимальный размер тела ответа, собираемого в память
+ * @param h2c                   HTTP/2 без TLS (prior knowledge) вместо HTTP/1.1
+ */
+@ConfigurationProperties(prefix = "shareit-server")
+public record ShareItServerClientProperties(
+        String url,
+        @DefaultValue("500") int maxConnections,
+        @DefaultValue("1000") int pendingAcquireMaxSize,
+        @DefaultValue("5s") Duration pendingAcquireTimeout,
+        @DefaultValue("30s") Duration maxIdleTime,
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("30s") Duration responseTimeout,
+        @DefaultValue("16MB") DataSize maxInMemorySize,
+        @DefaultValue("false") boolean h2c
+) {
+}
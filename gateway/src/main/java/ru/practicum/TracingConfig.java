@@ -0,0 +1,23 @@
+package ru.practicum;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Экспорт спанов шлюза в лог как OTLP JSON — в том же формате, что и на сервере. Отдельный файл
+ * для спанов есть только у сервера: трасса запроса целиком видна по нему, спаны шлюза нужны реже.
+ * <p>
+ * Спан входящего запроса создаёт наблюдение Spring MVC, спан запроса к серверу — наблюдение
+ * {@link org.springframework.web.reactive.function.client.WebClient} из общего {@code WebClient.Builder}.
+ * Оно же добавляет к запросу заголовок W3C {@code traceparent}, в котором сервер получает контекст трассы.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter otlpJsonSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -1,17 +1,21 @@
 package ru.practicum.booking;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 import ru.practicum.booking.client.BookingClient;
 import ru.practicum.booking.dto.BookItemRequestDto;
+import ru.practicum.booking.dto.BookingBatchApproveDto;
 import ru.practicum.booking.dto.BookingState;
 
 @Controller
@@ -24,52 +28,72 @@ public class BookingController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(USER_ID_HEADER) long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}",
+                stateParam, userId, from, size, cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(USER_ID_HEADER) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(USER_ID_HEADER) long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(USER_ID_HEADER) long userId,
+                                                   @PathVariable Long bookingId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                   String ifNoneMatch) {
         log.info("Get booking {}, userId={}", bookingId, userId);
-        return bookingClient.getBooking(userId, bookingId);
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader(USER_ID_HEADER) long userId,
-                                          @PathVariable long bookingId,
-                                          @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(@RequestHeader(USER_ID_HEADER) long userId,
+                                                @PathVariable long bookingId,
+                                                @RequestParam boolean approved) {
         log.info("Approve booking {}, userId={}, approved={}", bookingId, userId, approved);
         return bookingClient.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> approveAll(@RequestHeader(USER_ID_HEADER) long userId,
+                                                   @RequestParam boolean approved,
+                                                   @RequestBody @Valid BookingBatchApproveDto requestDto) {
+        log.info("Approve {} bookings, userId={}, approved={}", requestDto.getBookingIds().size(), userId, approved);
+        return bookingClient.approveAll(userId, approved, requestDto);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader(USER_ID_HEADER) long userId,
-                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                         @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get owner bookings state={}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getOwnerBookings(userId, state, from, size);
+        log.info("Get owner bookings state={}, userId={}, from={}, size={}, cursor={}",
+                stateParam, userId, from, size, cursor);
+        return bookingClient.getOwnerBookings(userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportOwnerBookings(@RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("Export owner bookings, userId={}", userId);
+        return bookingClient.exportOwnerBookings(userId);
     }
 
     @PatchMapping("/{bookingId}/cancel")
-    public ResponseEntity<Object> cancel(@RequestHeader(USER_ID_HEADER) long userId,
-                                         @PathVariable long bookingId) {
+    public Mono<ResponseEntity<Object>> cancel(@RequestHeader(USER_ID_HEADER) long userId,
+                                               @PathVariable long bookingId) {
         log.info("Cancel booking {}, userId={}", bookingId, userId);
         return bookingClient.cancel(userId, bookingId);
     }
@@ -1,66 +1,80 @@
 package ru.practicum.booking.client;
 
+import java.util.HashMap;
 import java.util.Map;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import reactor.core.publisher.Mono;
 import ru.practicum.BaseClient;
 import ru.practicum.booking.dto.BookItemRequestDto;
+import ru.practicum.booking.dto.BookingBatchApproveDto;
 import ru.practicum.booking.dto.BookingState;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public BookingClient(WebClient shareItServerWebClient) {
+        super(shareItServerWebClient, API_PREFIX);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                                    @Nullable String cursor) {
+        return get("?" + pagingQuery(cursor), userId, pagingParameters(state, from, size, cursor));
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<StreamingResponseBody>> exportOwnerBookings(long userId) {
+        return getStream("/owner/export", userId, MediaType.APPLICATION_NDJSON);
+    }
+
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId, @Nullable String ifNoneMatch) {
+        return get("/" + bookingId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> approve(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(long userId, long bookingId, boolean approved) {
         Map<String, Object> params = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, params, null);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> params = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, params);
+    public Mono<ResponseEntity<Object>> approveAll(long userId, boolean approved, BookingBatchApproveDto dto) {
+        Map<String, Object> params = Map.of("approved", approved);
+        return patch("/batch?approved={approved}", userId, params, dto);
+    }
+
+    public Mono<ResponseEntity<Object>> getOwnerBookings(long userId, BookingState state, Integer from, Integer size,
+                                                         @Nullable String cursor) {
+        return get("/owner?" + pagingQuery(cursor), userId, pagingParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> cancel(long userId, long bookingId) {
+    public Mono<ResponseEntity<Object>> cancel(long userId, long bookingId) {
         return patch("/" + bookingId + "/cancel", userId);
     }
+
+    private static String pagingQuery(@Nullable String cursor) {
+        String query = "state={state}&from={from}&size={size}";
+        return cursor == null ? query : query + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> pagingParameters(BookingState state, Integer from, Integer size,
+                                                        @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
 }
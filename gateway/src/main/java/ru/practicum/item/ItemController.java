@@ -1,14 +1,25 @@
 package ru.practicum.item;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import ru.practicum.item.client.ItemClient;
 import ru.practicum.item.dto.CommentCreateDto;
 import ru.practicum.item.dto.ItemCreateDto;
 import ru.practicum.item.dto.ItemUpdateDto;
+import ru.practicum.item.search.ItemSearchCache;
 
 import java.util.List;
 
@@ -18,45 +29,70 @@ import java.util.List;
 @Validated
 public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int IMPORT_BUFFER_SIZE = 64 * 1024;
     private final ItemClient itemClient;
+    private final ItemSearchCache itemSearchCache;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                      @Valid @RequestBody ItemCreateDto dto) {
-        return itemClient.add(ownerId, dto);
+    public Mono<ResponseEntity<Object>> add(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                            @Valid @RequestBody ItemCreateDto dto) {
+        return itemClient.add(ownerId, dto).map(itemSearchCache::observe);
+    }
+
+    /**
+     * Импорт проксируется потоком: тело читается из запроса кусками по мере отправки на сервер,
+     * строки проверяет сервер. Чтение из servlet-потока блокирующее, поэтому идёт на boundedElastic.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                    HttpServletRequest request) {
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(
+                        request::getInputStream, DefaultDataBufferFactory.sharedInstance, IMPORT_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return itemClient.importItems(ownerId, MediaType.parseMediaType(request.getContentType()), body)
+                .map(itemSearchCache::observe);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                         @PathVariable long itemId,
-                                         @RequestBody ItemUpdateDto dto) {
-        return itemClient.update(ownerId, itemId, dto);
+    public Mono<ResponseEntity<Object>> update(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                               @PathVariable long itemId,
+                                               @RequestBody ItemUpdateDto dto) {
+        return itemClient.update(ownerId, itemId, dto).map(itemSearchCache::observe);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                          @PathVariable long itemId) {
-        return itemClient.getById(ownerId, itemId);
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                @PathVariable long itemId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                String ifNoneMatch) {
+        return itemClient.getById(ownerId, itemId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(USER_ID_HEADER) long ownerId) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(USER_ID_HEADER) long ownerId) {
         return itemClient.getAll(ownerId);
     }
 
+    @GetMapping("/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportAll(@RequestHeader(USER_ID_HEADER) long ownerId) {
+        return itemClient.exportAll(ownerId);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam(required = false) String text) {
+    public Mono<ResponseEntity<Object>> search(@RequestParam(required = false) String text,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
         if (text == null || text.isBlank()) {
-            return ResponseEntity.ok(List.of());
+            return Mono.just(ResponseEntity.ok(List.of()));
         }
 
-        return itemClient.search(text);
+        return itemSearchCache.search(text, ifNoneMatch);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @PathVariable long itemId,
-                                             @Valid @RequestBody CommentCreateDto dto) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(USER_ID_HEADER) long userId,
+                                                   @PathVariable long itemId,
+                                                   @Valid @RequestBody CommentCreateDto dto) {
         return itemClient.addComment(userId, itemId, dto);
     }
 }
@@ -1,12 +1,14 @@
 package ru.practicum.item.client;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.BaseClient;
 import ru.practicum.item.dto.CommentCreateDto;
 import ru.practicum.item.dto.ItemCreateDto;
@@ -18,37 +20,40 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
-        );
+    public ItemClient(WebClient shareItServerWebClient) {
+        super(shareItServerWebClient, API_PREFIX);
     }
 
-    public ResponseEntity<Object> add(long userId, ItemCreateDto dto) {
+    public Mono<ResponseEntity<Object>> add(long userId, ItemCreateDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, ItemUpdateDto dto) {
+    public Mono<ResponseEntity<Object>> importItems(long userId, MediaType contentType, Flux<DataBuffer> body) {
+        return postStream("/import", userId, contentType, body);
+    }
+
+    public Mono<ResponseEntity<Object>> update(long userId, long itemId, ItemUpdateDto dto) {
         return patch("/" + itemId, userId, dto);
     }
 
-    public ResponseEntity<Object> getById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, long itemId, @Nullable String ifNoneMatch) {
+        return get("/" + itemId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAll(long userId) {
+    public Mono<ResponseEntity<Object>> getAll(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> search(String text) {
+    public Mono<ResponseEntity<StreamingResponseBody>> exportAll(long userId) {
+        return getStream("/export", userId, MediaType.APPLICATION_NDJSON);
+    }
+
+    public Mono<ResponseEntity<Object>> search(String text) {
         Map<String, Object> params = Map.of("text", text);
         return get("/search?text={text}", null, params);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentCreateDto dto) {
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentCreateDto dto) {
         return post("/" + itemId + "/comment", userId, dto);
     }
 }
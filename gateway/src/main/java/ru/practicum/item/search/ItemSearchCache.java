@@ -0,0 +1,125 @@
+package ru.practicum.item.search;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+import ru.practicum.item.client.ItemClient;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Кэш ответов поиска вещей. Результат поиска не зависит от пользователя, поэтому ключ — только
+ * текст запроса в нижнем регистре (сервер ищет без учёта регистра). Одновременные промахи
+ * по одному ключу делят один запрос к серверу.
+ * <p>
+ * Сервер отдаёт в заголовке {@value #VERSION_HEADER} версию набора вещей, которая меняется после
+ * каждого создания или изменения вещи. Версия хранится в БД и одинакова на всех экземплярах сервера,
+ * поэтому ответы разных экземпляров не сбрасывают кэш друг другу. Увидев новую версию в ответе,
+ * шлюз сбрасывает весь кэш;
+ * изменения, прошедшие через другие экземпляры шлюза, видны не позже чем через ttl.
+ * <p>
+ * Ответы помечаются ETag, по {@code If-None-Match} возвращается 304 без тела.
+ */
+@Component
+public class ItemSearchCache {
+    public static final String VERSION_HEADER = "X-Items-Version";
+
+    private final ItemClient itemClient;
+    private final AsyncCache<String, CachedSearch> cache;
+    private final AtomicReference<String> knownVersion = new AtomicReference<>();
+
+    public ItemSearchCache(ItemClient itemClient, ItemSearchCacheProperties properties) {
+        this.itemClient = itemClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxEntries())
+                .expireAfterWrite(properties.ttl())
+                .buildAsync();
+    }
+
+    public Mono<ResponseEntity<Object>> search(String text, @Nullable String ifNoneMatch) {
+        String key = text.toLowerCase(Locale.ROOT);
+        CompletableFuture<CachedSearch> future = cache.get(key, (k, executor) -> load(k));
+        return Mono.fromFuture(future, true)
+                .map(cached -> {
+                    if (cached.etag() == null) {
+                        cache.asMap().remove(key, future);
+                        return cached.response();
+                    }
+                    return cached.toResponse(ifNoneMatch);
+                });
+    }
+
+    /**
+     * Запоминает версию вещей из ответа сервера и сбрасывает кэш, если она изменилась.
+     */
+    public ResponseEntity<Object> observe(ResponseEntity<Object> response) {
+        String version = response.getHeaders().getFirst(VERSION_HEADER);
+        if (version != null) {
+            String previous = knownVersion.getAndSet(version);
+            if (previous != null && !previous.equals(version)) {
+                cache.synchronous().invalidateAll();
+            }
+        }
+        return response;
+    }
+
+    private CompletableFuture<CachedSearch> load(String text) {
+        return itemClient.search(text)
+                .map(response -> {
+                    observe(response);
+                    String version = response.getHeaders().getFirst(VERSION_HEADER);
+                    // ответ, обогнанный изменением вещей, отдаём как есть, но не кэшируем
+                    if (!response.getStatusCode().is2xxSuccessful() || !(response.getBody() instanceof byte[] body)
+                            || version == null || !version.equals(knownVersion.get())) {
+                        return new CachedSearch(response, null, null, null);
+                    }
+                    String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+                    return new CachedSearch(response, body, response.getHeaders().getContentType(), etag);
+                })
+                .toFuture();
+    }
+
+    private record CachedSearch(ResponseEntity<Object> response, byte[] body, MediaType contentType, String etag) {
+
+        ResponseEntity<Object> toResponse(@Nullable String ifNoneMatch) {
+            if (matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache());
+            if (contentType != null) {
+                builder.contentType(contentType);
+            }
+            return builder.body(body);
+        }
+
+        private boolean matches(@Nullable String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.item.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ответов {@code GET /items/search}.
+ *
+ * @param maxEntries сколько разных запросов держать в кэше
+ * @param ttl        сколько живёт ответ, если шлюз не узнал об изменении вещей раньше
+ */
+@ConfigurationProperties(prefix = "shareit.search-cache")
+public record ItemSearchCacheProperties(
+        @DefaultValue("10000") long maxEntries,
+        @DefaultValue("30s") Duration ttl
+) {
+}
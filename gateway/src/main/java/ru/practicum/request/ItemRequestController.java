@@ -2,9 +2,11 @@ package ru.practicum.request;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.request.client.ItemRequestClient;
 import ru.practicum.request.dto.ItemRequestDto;
 
@@ -17,24 +19,26 @@ public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(USER_ID_HEADER) long userId,
-                                         @Valid @RequestBody ItemRequestDto dto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(USER_ID_HEADER) long userId,
+                                               @Valid @RequestBody ItemRequestDto dto) {
         return itemRequestClient.create(userId, dto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwn(@RequestHeader(USER_ID_HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> getOwn(@RequestHeader(USER_ID_HEADER) long userId) {
         return itemRequestClient.getOwn(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getOthers(@RequestHeader(USER_ID_HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> getOthers(@RequestHeader(USER_ID_HEADER) long userId) {
         return itemRequestClient.getOthers(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader(USER_ID_HEADER) long userId,
-                                          @PathVariable long requestId) {
-        return itemRequestClient.getById(userId, requestId);
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(USER_ID_HEADER) long userId,
+                                                @PathVariable long requestId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                String ifNoneMatch) {
+        return itemRequestClient.getById(userId, requestId, ifNoneMatch);
     }
 }
@@ -1,12 +1,10 @@
 package ru.practicum.request.client;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.BaseClient;
 import ru.practicum.request.dto.ItemRequestDto;
 
@@ -14,28 +12,23 @@ import ru.practicum.request.dto.ItemRequestDto;
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
-        );
+    public ItemRequestClient(WebClient shareItServerWebClient) {
+        super(shareItServerWebClient, API_PREFIX);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemRequestDto dto) {
+    public Mono<ResponseEntity<Object>> create(long userId, ItemRequestDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getOwn(long userId) {
+    public Mono<ResponseEntity<Object>> getOwn(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getOthers(long userId) {
+    public Mono<ResponseEntity<Object>> getOthers(long userId) {
         return get("/all", userId);
     }
 
-    public ResponseEntity<Object> getById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, long requestId, @Nullable String ifNoneMatch) {
+        return get("/" + requestId, userId, null, ifNoneMatch);
     }
 }
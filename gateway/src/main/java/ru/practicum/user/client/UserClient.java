@@ -1,12 +1,10 @@
 package ru.practicum.user.client;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.BaseClient;
 import ru.practicum.user.dto.UserCreateDto;
 import ru.practicum.user.dto.UserUpdateDto;
@@ -15,32 +13,27 @@ import ru.practicum.user.dto.UserUpdateDto;
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
-        );
+    public UserClient(WebClient shareItServerWebClient) {
+        super(shareItServerWebClient, API_PREFIX);
     }
 
-    public ResponseEntity<Object> create(UserCreateDto dto) {
+    public Mono<ResponseEntity<Object>> create(UserCreateDto dto) {
         return post("", dto);
     }
 
-    public ResponseEntity<Object> update(long userId, UserUpdateDto dto) {
+    public Mono<ResponseEntity<Object>> update(long userId, UserUpdateDto dto) {
         return patch("/" + userId, dto);
     }
 
-    public ResponseEntity<Object> getById(long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, @Nullable String ifNoneMatch) {
+        return get("/" + userId, null, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> delete(long userId) {
+    public Mono<ResponseEntity<Object>> delete(long userId) {
         return super.delete("/" + userId);
     }
 }
@@ -2,9 +2,11 @@ package ru.practicum.user.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.user.client.UserClient;
 import ru.practicum.user.dto.UserCreateDto;
 import ru.practicum.user.dto.UserUpdateDto;
@@ -17,28 +19,30 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserCreateDto dto) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserCreateDto dto) {
         return userClient.create(dto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable long userId,
-                                         @Valid @RequestBody UserUpdateDto dto) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable long userId,
+                                               @Valid @RequestBody UserUpdateDto dto) {
         return userClient.update(userId, dto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable long userId) {
-        return userClient.getById(userId);
+    public Mono<ResponseEntity<Object>> getById(@PathVariable long userId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                String ifNoneMatch) {
+        return userClient.getById(userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return userClient.getAll();
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable long userId) {
         return userClient.delete(userId);
     }
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+/**
+ * Контроллеры шлюза возвращают {@code Mono}: MockMvc сначала запускает асинхронную обработку,
+ * и результат появляется только после повторной диспетчеризации. Ошибки валидации
+ * возникают до вызова контроллера и остаются синхронными.
+ */
+public final class AsyncMvc {
+
+    private AsyncMvc() {
+    }
+
+    public static ResultActions performAsync(MockMvc mockMvc, RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        if (!result.getRequest().isAsyncStarted()) {
+            return actions;
+        }
+        ResultActions dispatched = mockMvc.perform(asyncDispatch(result));
+        MvcResult streaming = dispatched.andReturn();
+        if (streaming.getRequest().isAsyncStarted()) {
+            // StreamingResponseBody пишет тело во второй асинхронной фазе: ждём, пока запись закончится
+            streaming.getAsyncResult();
+        }
+        return dispatched;
+    }
+}
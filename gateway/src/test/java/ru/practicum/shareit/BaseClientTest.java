@@ -1,22 +1,28 @@
 package ru.practicum.shareit;
 
-import org.springframework.web.client.RestTemplate;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.http.*;
-import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.BaseClient;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class BaseClientTest {
-    private RestTemplate rest;
+    private StubServer server;
     private TestClient client;
+    private SimpleMeterRegistry meterRegistry;
 
     private static final String PATH = "/path";
     private static final String USERS = "/users";
@@ -26,131 +32,219 @@ public class BaseClientTest {
 
     @BeforeEach
     void setUp() {
-        this.rest = mock(RestTemplate.class);
-        this.client = new TestClient(this.rest);
+        this.server = StubServer.start();
+        this.client = new TestClient(server.webClient());
+        this.meterRegistry = new SimpleMeterRegistry();
+        client.setMeterRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
     }
 
     @Test
     void getWithUserIdSetsHeader() {
-        when(rest.exchange(anyString(), any(), any(), eq(Object.class)))
-                .thenReturn(ResponseEntity.ok().body(Map.of("ok", true)));
-
-        ResponseEntity<Object> response = client.getWithUser(PATH, USER_ID_10);
+        ResponseEntity<Object> response = client.getWithUser(PATH, USER_ID_10).block();
         assertThat(response).isNotNull();
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<HttpEntity<?>> captor = ArgumentCaptor.forClass(HttpEntity.class);
-        verify(rest, times(1)).exchange(eq(PATH), eq(HttpMethod.GET), captor.capture(), eq(Object.class));
-
-        HttpHeaders headers = captor.getValue().getHeaders();
-        assertThat(headers.getFirst("X-Sharer-User-Id")).isEqualTo("10");
-        assertThat(headers.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
-        assertThat(headers.getAccept()).contains(MediaType.APPLICATION_JSON);
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.method()).isEqualTo("GET");
+        assertThat(request.path()).isEqualTo(PATH);
+        assertThat(request.header("X-Sharer-User-Id")).isEqualTo("10");
+        assertThat(request.header(HttpHeaders.CONTENT_TYPE)).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(request.header(HttpHeaders.ACCEPT)).contains(MediaType.APPLICATION_JSON_VALUE);
     }
 
     @Test
     void getWithoutUserIdDoesNotSetHeader() {
-        when(rest.exchange(anyString(), any(), any(), eq(Object.class)))
-                .thenReturn(ResponseEntity.ok().body(Map.of("ok", true)));
-
-        ResponseEntity<Object> response = client.getNoUser(PATH);
+        ResponseEntity<Object> response = client.getNoUser(PATH).block();
         assertThat(response).isNotNull();
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<HttpEntity<?>> captor = ArgumentCaptor.forClass(HttpEntity.class);
-        verify(rest, times(1)).exchange(eq(PATH), eq(HttpMethod.GET), captor.capture(), eq(Object.class));
-
-        HttpHeaders headers = captor.getValue().getHeaders();
-        assertThat(headers.containsKey("X-Sharer-User-Id")).isFalse();
+        assertThat(server.takeRequest().header("X-Sharer-User-Id")).isNull();
     }
 
     @Test
-    void getWithParametersUsesExchangeWithUriVariables() {
-        when(rest.exchange(anyString(), any(), any(), eq(Object.class), anyMap()))
-                .thenReturn(ResponseEntity.ok().body(Map.of("ok", true)));
+    void getWithParametersExpandsUriVariables() {
+        server.respond(200, "application/json", "[]");
 
-        ResponseEntity<Object> response = client.getWithParams(SEARCH, USER_ID_1, Map.of("text", "drill"));
+        ResponseEntity<Object> response = client.getWithParams(SEARCH, USER_ID_1, Map.of("text", "drill bit")).block();
         assertThat(response).isNotNull();
 
-        verify(rest, times(1)).exchange(
-                eq(SEARCH),
-                eq(HttpMethod.GET),
-                any(HttpEntity.class),
-                eq(Object.class),
-                eq(Map.of("text", "drill"))
-        );
+        assertThat(server.takeRequest().path()).isEqualTo("/search?text=drill%20bit");
     }
 
     @Test
     void whenServerReturns400BaseClientReturnsStatusAndBodyBytes() {
-        byte[] body = "error".getBytes();
+        server.respond(400, "text/plain", "error");
 
-        when(rest.exchange(anyString(), any(), any(), eq(Object.class)))
-                .thenThrow(HttpClientErrorException.create(
-                        HttpStatus.BAD_REQUEST,
-                        "Bad Request",
-                        HttpHeaders.EMPTY,
-                        body,
-                        null
-                ));
-
-        ResponseEntity<Object> resp = client.getNoUser("/bad");
+        ResponseEntity<Object> resp = client.getNoUser("/bad").block();
 
         assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(resp.getBody()).isInstanceOf(byte[].class);
-        assertThat((byte[]) resp.getBody()).isEqualTo(body);
+        assertThat((byte[]) resp.getBody()).isEqualTo("error".getBytes(StandardCharsets.UTF_8));
     }
 
     @Test
     void whenNon200WithBodyReturnsStatusAndBody() {
-        ResponseEntity<Object> fromServer = ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body(Map.of("message", "not found"));
-
-        when(rest.exchange(anyString(), any(), any(), eq(Object.class)))
-                .thenReturn(fromServer);
+        server.respond(404, "application/json", "{\"message\":\"not found\"}");
 
-        ResponseEntity<Object> resp = client.getNoUser("/missing");
+        ResponseEntity<Object> resp = client.getNoUser("/missing").block();
 
         assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
-        assertThat(resp.getBody()).isEqualTo(Map.of("message", "not found"));
+        assertThat(resp.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(new String((byte[]) resp.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"message\":\"not found\"}");
     }
 
     @Test
-    void postSendsBody() {
-        when(rest.exchange(anyString(), any(), any(), eq(Object.class)))
-                .thenReturn(ResponseEntity.ok().body(Map.of("ok", true)));
+    void successKeepsApplicationHeadersButDropsTransportHeaders() {
+        server.respond(200, "application/json", "[{\"id\":1}]", Map.of("X-Next-Cursor", "abc"));
+
+        ResponseEntity<Object> resp = client.getNoUser(PATH).block();
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(new String((byte[]) resp.getBody(), StandardCharsets.UTF_8)).isEqualTo("[{\"id\":1}]");
+        assertThat(resp.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("abc");
+        assertThat(resp.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH)).isFalse();
+    }
+
+    @Test
+    void successBodyIsPassedThroughByteForByte() {
+        String json = "[ {\"id\" : 1, \"price\" : 1.50, \"name\" : \"Дрель\"} ]";
+        server.respond(200, "application/json", json);
+
+        ResponseEntity<Object> resp = client.getNoUser(PATH).block();
+
+        assertThat(resp.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat((byte[]) resp.getBody()).isEqualTo(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void successWithoutBodyReturnsStatusOnly() {
+        server.respond(200, null, "");
+
+        ResponseEntity<Object> resp = client.getNoUser(PATH).block();
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resp.hasBody()).isFalse();
+    }
+
+    @Test
+    void successBodyLargerThanMaxInMemorySizeFailsWithLimitError() {
+        server.respond(200, "application/json", "[\"" + "x".repeat(2 * 1024 * 1024) + "\"]");
+
+        assertThatThrownBy(() -> client.getNoUser(PATH).block())
+                .isInstanceOf(DataBufferLimitException.class);
+    }
+
+    @Test
+    void conditionalGetForwardsIfNoneMatchAndRelays304() {
+        server.respond(304, null, "", Map.of(HttpHeaders.ETAG, "\"7-1-0\""));
+
+        ResponseEntity<Object> resp = client.getConditional(PATH, USER_ID_1, "\"7-1-0\"").block();
 
+        assertThat(server.takeRequest().header(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"7-1-0\"");
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(resp.getHeaders().getETag()).isEqualTo("\"7-1-0\"");
+        assertThat(resp.hasBody()).isFalse();
+    }
+
+    @Test
+    void requestsAreTimedByClientMethodAndOutcome() {
+        server.respond(200, "application/json", "{}");
+        client.getNoUser(PATH).block();
+        server.respond(404, "application/json", "{\"message\":\"not found\"}");
+        client.getNoUser("/missing").block();
+
+        assertThat(clientTimer("SUCCESS").count()).isEqualTo(1);
+        assertThat(clientTimer("CLIENT_ERROR").count()).isEqualTo(1);
+    }
+
+    @Test
+    void requestIsTimedOnlyWhenSubscribed() {
+        Mono<ResponseEntity<Object>> pending = client.getNoUser(PATH);
+
+        assertThat(meterRegistry.find("shareit.gateway.client.requests").timers()).isEmpty();
+
+        server.respond(200, "application/json", "{}");
+        pending.block();
+        assertThat(clientTimer("SUCCESS").count()).isEqualTo(1);
+    }
+
+    @Test
+    void postSendsBody() {
         Map<String, Object> body = Map.of("name", "Юля");
 
-        ResponseEntity<Object> response = client.postNoUser(USERS, body);
+        ResponseEntity<Object> response = client.postNoUser(USERS, body).block();
         assertThat(response).isNotNull();
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<HttpEntity<?>> captor = ArgumentCaptor.forClass(HttpEntity.class);
-        verify(rest, times(1)).exchange(eq(USERS), eq(HttpMethod.POST), captor.capture(), eq(Object.class));
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.method()).isEqualTo("POST");
+        assertThat(request.path()).isEqualTo(USERS);
+        assertThat(request.body()).isEqualTo("{\"name\":\"Юля\"}");
+    }
+
+    @Test
+    void getStreamCopiesServerBodyAndStatus() throws Exception {
+        server.respond(200, MediaType.APPLICATION_NDJSON_VALUE, "{\"id\":1}\n{\"id\":2}\n");
 
-        assertThat(captor.getValue().getBody()).isEqualTo(body);
+        ResponseEntity<StreamingResponseBody> response = client.getStream(PATH, USER_ID_10).block();
+        assertThat(response).isNotNull();
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+        assertThat(server.takeRequest().header(HttpHeaders.ACCEPT))
+                .startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    @Test
+    void getStreamPassesServerErrorThrough() throws Exception {
+        server.respond(404, MediaType.APPLICATION_JSON_VALUE, "{\"error\":\"not found\"}");
+
+        ResponseEntity<StreamingResponseBody> response = client.getStream(PATH, USER_ID_10).block();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"error\":\"not found\"}");
+    }
+
+    private Timer clientTimer(String outcome) {
+        return meterRegistry.get("shareit.gateway.client.requests")
+                .tags("client", "TestClient", "method", "GET", "outcome", outcome)
+                .timer();
     }
 
     static class TestClient extends BaseClient {
-        TestClient(RestTemplate rest) {
-            super(rest);
+        TestClient(WebClient webClient) {
+            super(webClient, "");
         }
 
-        ResponseEntity<Object> getNoUser(String path) {
+        Mono<ResponseEntity<Object>> getNoUser(String path) {
             return get(path);
         }
 
-        ResponseEntity<Object> getWithUser(String path, long userId) {
+        Mono<ResponseEntity<Object>> getWithUser(String path, long userId) {
             return get(path, userId);
         }
 
-        ResponseEntity<Object> getWithParams(String path, long userId, Map<String, Object> params) {
+        Mono<ResponseEntity<Object>> getWithParams(String path, long userId, Map<String, Object> params) {
             return get(path, userId, params);
         }
 
-        ResponseEntity<Object> postNoUser(String path, Object body) {
+        Mono<ResponseEntity<Object>> getConditional(String path, long userId, String ifNoneMatch) {
+            return get(path, userId, null, ifNoneMatch);
+        }
+
+        Mono<ResponseEntity<Object>> postNoUser(String path, Object body) {
             return post(path, body);
         }
+
+        Mono<ResponseEntity<StreamingResponseBody>> getStream(String path, long userId) {
+            return getStream(path, userId, MediaType.APPLICATION_NDJSON);
+        }
     }
 }
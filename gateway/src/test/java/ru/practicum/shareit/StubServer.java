@@ -0,0 +1,124 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.ShareItServerClientConfig;
+import ru.practicum.ShareItServerClientProperties;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Локальный HTTP-сервер вместо shareit-server: запоминает запросы и отвечает заданным ответом.
+ * Клиенты шлюза ходят в него через настоящий {@link WebClient} с общим пулом соединений.
+ */
+public class StubServer implements AutoCloseable {
+
+    public record Request(String method, String path, Headers headers, String body) {
+        public String header(String name) {
+            return headers.getFirst(name);
+        }
+    }
+
+    private record Response(int status, String contentType, String body, Map<String, String> headers) {
+    }
+
+    private final HttpServer server;
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final ConnectionProvider connectionProvider;
+    private volatile Response response = new Response(200, "application/json", "{}", Map.of());
+
+    private StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        ShareItServerClientProperties properties = new ShareItServerClientProperties(url(), 10, 100,
+                Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofSeconds(2), Duration.ofSeconds(5),
+                DataSize.ofMegabytes(1), false);
+        ShareItServerClientConfig config = new ShareItServerClientConfig();
+        connectionProvider = config.shareItServerConnectionProvider(properties);
+        webClient = config.shareItServerWebClient(WebClient.builder(), connectionProvider, properties);
+    }
+
+    private final WebClient webClient;
+
+    public static StubServer start() {
+        try {
+            return new StubServer();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    public void respond(int status, String contentType, String body) {
+        respond(status, contentType, body, Map.of());
+    }
+
+    public void respond(int status, String contentType, String body, Map<String, String> headers) {
+        response = new Response(status, contentType, body, headers);
+    }
+
+    public Request takeRequest() {
+        try {
+            Request request = requests.poll(5, TimeUnit.SECONDS);
+            if (request == null) {
+                throw new AssertionError("Запрос до сервера не дошёл");
+            }
+            return request;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requestCount.incrementAndGet();
+        requests.add(new Request(exchange.getRequestMethod(), exchange.getRequestURI().toString(),
+                exchange.getRequestHeaders(), body));
+
+        Response current = response;
+        byte[] bytes = current.body().getBytes(StandardCharsets.UTF_8);
+        if (current.contentType() != null) {
+            exchange.getResponseHeaders().set("Content-Type", current.contentType());
+        }
+        current.headers().forEach(exchange.getResponseHeaders()::set);
+        exchange.sendResponseHeaders(current.status(), bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
@@ -1,74 +1,87 @@
 package ru.practicum.shareit.booking;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Answers;
-import org.mockito.ArgumentMatchers;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.*;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriTemplateHandler;
 import ru.practicum.booking.client.BookingClient;
 import ru.practicum.booking.dto.BookItemRequestDto;
+import ru.practicum.booking.dto.BookingBatchApproveDto;
 import ru.practicum.booking.dto.BookingState;
+import ru.practicum.shareit.StubServer;
 
 import java.time.LocalDateTime;
-import java.util.function.Supplier;
+import java.util.List;
 
-import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class BookingClientTest {
 
+    private StubServer server;
     private BookingClient client;
 
     @BeforeEach
     void setUp() {
-        RestTemplate restTemplate = mock(RestTemplate.class);
-        RestTemplateBuilder builder = mock(RestTemplateBuilder.class, Answers.RETURNS_SELF);
-
-        when(builder.uriTemplateHandler(any(UriTemplateHandler.class))).thenReturn(builder);
-        when(builder.requestFactory(ArgumentMatchers.<Supplier<ClientHttpRequestFactory>>any())).thenReturn(builder);
-        when(builder.build()).thenReturn(restTemplate);
+        server = StubServer.start();
+        client = new BookingClient(server.webClient());
+    }
 
-        ResponseEntity<Object> ok = ResponseEntity.ok().body(new Object());
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(Object.class)))
-                .thenReturn(ok);
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(Object.class), anyMap()))
-                .thenReturn(ok);
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(Object.class), any(Object[].class)))
-                .thenReturn(ok);
-        when(restTemplate.exchange(any(RequestEntity.class), eq(Object.class)))
-                .thenReturn(ok);
+    @Test
+    void getBookingDoesNotThrow() {
+        client.getBooking(1L, 1L, null).block();
 
-        client = new BookingClient("http://localhost:9090", builder);
+        assertThat(server.takeRequest().path()).isEqualTo("/bookings/1");
     }
 
     @Test
-    void getBookingDoesNotThrow() {
-        client.getBooking(1L, 1L);
+    void approveAllPatchesBatchWithIds() {
+        client.approveAll(1L, false, new BookingBatchApproveDto(List.of(5L, 6L))).block();
+
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.method()).isEqualTo("PATCH");
+        assertThat(request.path()).isEqualTo("/bookings/batch?approved=false");
+        assertThat(request.body()).isEqualTo("{\"bookingIds\":[5,6]}");
     }
 
     @Test
     void getBookingsDoesNotThrow() {
-        client.getBookings(1L, BookingState.ALL, 0, 10);
+        client.getBookings(1L, BookingState.ALL, 0, 10, null).block();
+
+        assertThat(server.takeRequest().path()).isEqualTo("/bookings?state=ALL&from=0&size=10");
     }
 
     @Test
     void getOwnerBookingsDoesNotThrow() {
-        client.getOwnerBookings(1L, BookingState.ALL, 0, 10);
+        client.getOwnerBookings(1L, BookingState.ALL, 0, 10, null).block();
+
+        assertThat(server.takeRequest().path()).isEqualTo("/bookings/owner?state=ALL&from=0&size=10");
+    }
+
+    @Test
+    void getOwnerBookingsWithCursorDoesNotThrow() {
+        client.getOwnerBookings(1L, BookingState.ALL, 0, 10, "abc").block();
+
+        assertThat(server.takeRequest().path()).isEqualTo("/bookings/owner?state=ALL&from=0&size=10&cursor=abc");
     }
 
     @Test
     void approveDoesNotThrow() {
-        client.approve(1L, 1L, true);
+        client.approve(1L, 1L, true).block();
+
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.method()).isEqualTo("PATCH");
+        assertThat(request.path()).isEqualTo("/bookings/1?approved=true");
     }
 
     @Test
     void cancelDoesNotThrow() {
-        client.cancel(1L, 1L);
+        client.cancel(1L, 1L).block();
+
+        assertThat(server.takeRequest().path()).isEqualTo("/bookings/1/cancel");
     }
 
     @Test
@@ -78,6 +91,10 @@ public class BookingClientTest {
 
         BookItemRequestDto dto = new BookItemRequestDto(1L, start, end);
 
-        client.bookItem(1L, dto);
+        client.bookItem(1L, dto).block();
+
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.method()).isEqualTo("POST");
+        assertThat(request.body()).contains("\"itemId\":1");
     }
-}
\ No newline at end of file
+}
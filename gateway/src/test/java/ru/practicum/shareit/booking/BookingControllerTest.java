@@ -5,9 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.booking.BookingController;
 import ru.practicum.booking.client.BookingClient;
 
@@ -15,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
+import static ru.practicum.shareit.AsyncMvc.performAsync;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,23 +35,23 @@ class BookingControllerTest {
 
     @Test
     void getBookingsShouldReturn200AndCallClient_withDefaults() throws Exception {
-        when(bookingClient.getBookings(eq(10L), any(), eq(0), eq(10)))
-                .thenReturn(ResponseEntity.ok(List.of(Map.of("id", 1))));
+        when(bookingClient.getBookings(eq(10L), any(), eq(0), eq(10), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(Map.of("id", 1)))));
 
-        mockMvc.perform(get("/bookings")
+        performAsync(mockMvc, get("/bookings")
                         .header(USER_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
 
-        verify(bookingClient).getBookings(eq(10L), any(), eq(0), eq(10));
+        verify(bookingClient).getBookings(eq(10L), any(), eq(0), eq(10), isNull());
     }
 
     @Test
     void getBookingsShouldReturn200AndCallClient_withParams() throws Exception {
-        when(bookingClient.getBookings(eq(10L), any(), eq(5), eq(20)))
-                .thenReturn(ResponseEntity.ok(List.of()));
+        when(bookingClient.getBookings(eq(10L), any(), eq(5), eq(20), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of())));
 
-        mockMvc.perform(get("/bookings")
+        performAsync(mockMvc, get("/bookings")
                         .header(USER_HEADER, "10")
                         .param("state", "future")
                         .param("from", "5")
@@ -55,12 +59,26 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
 
-        verify(bookingClient).getBookings(eq(10L), any(), eq(5), eq(20));
+        verify(bookingClient).getBookings(eq(10L), any(), eq(5), eq(20), isNull());
+    }
+
+    @Test
+    void getOwnerBookingsShouldForwardCursor() throws Exception {
+        when(bookingClient.getOwnerBookings(eq(10L), any(), eq(0), eq(10), eq("abc")))
+                .thenReturn(Mono.just(ResponseEntity.ok().header("X-Next-Cursor", "def").body(List.of())));
+
+        performAsync(mockMvc, get("/bookings/owner")
+                        .header(USER_HEADER, "10")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"));
+
+        verify(bookingClient).getOwnerBookings(eq(10L), any(), eq(0), eq(10), eq("abc"));
     }
 
     @Test
     void getBookingsShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(get("/bookings"))
+        performAsync(mockMvc, get("/bookings"))
                 .andExpect(status().isBadRequest());
 
         verifyNoInteractions(bookingClient);
@@ -68,7 +86,7 @@ class BookingControllerTest {
 
     @Test
     void getBookingsShouldReturn400WhenFromNegative() throws Exception {
-        mockMvc.perform(get("/bookings")
+        performAsync(mockMvc, get("/bookings")
                         .header(USER_HEADER, "10")
                         .param("from", "-1"))
                 .andExpect(status().isBadRequest());
@@ -78,7 +96,7 @@ class BookingControllerTest {
 
     @Test
     void getBookingsShouldReturn400WhenSizeNotPositive() throws Exception {
-        mockMvc.perform(get("/bookings")
+        performAsync(mockMvc, get("/bookings")
                         .header(USER_HEADER, "10")
                         .param("size", "0"))
                 .andExpect(status().isBadRequest());
@@ -88,7 +106,7 @@ class BookingControllerTest {
 
     @Test
     void getBookingsShouldReturn400WhenUnknownState() throws Exception {
-        mockMvc.perform(get("/bookings")
+        performAsync(mockMvc, get("/bookings")
                         .header(USER_HEADER, "10")
                         .param("state", "abracadabra"))
                 .andExpect(status().isBadRequest());
@@ -107,9 +125,9 @@ class BookingControllerTest {
         );
 
         when(bookingClient.bookItem(eq(10L), any()))
-                .thenReturn(ResponseEntity.ok(Map.of("id", 100)));
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 100))));
 
-        mockMvc.perform(post("/bookings")
+        performAsync(mockMvc, post("/bookings")
                         .header(USER_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
@@ -129,7 +147,7 @@ class BookingControllerTest {
                 )
         );
 
-        mockMvc.perform(post("/bookings")
+        performAsync(mockMvc, post("/bookings")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
                 .andExpect(status().isBadRequest());
@@ -139,7 +157,7 @@ class BookingControllerTest {
 
     @Test
     void bookItemShouldReturn400WhenInvalidBody() throws Exception {
-        mockMvc.perform(post("/bookings")
+        performAsync(mockMvc, post("/bookings")
                         .header(USER_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{"))
@@ -150,19 +168,31 @@ class BookingControllerTest {
 
     @Test
     void getBookingShouldReturn200AndCallClient() throws Exception {
-        when(bookingClient.getBooking(10L, 7L)).thenReturn(ResponseEntity.ok(Map.of("id", 7)));
+        when(bookingClient.getBooking(10L, 7L, null)).thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 7))));
 
-        mockMvc.perform(get("/bookings/7")
+        performAsync(mockMvc, get("/bookings/7")
                         .header(USER_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(7));
 
-        verify(bookingClient).getBooking(10L, 7L);
+        verify(bookingClient).getBooking(10L, 7L, null);
+    }
+
+    @Test
+    void getBookingShouldForwardIfNoneMatchAndReturn304() throws Exception {
+        when(bookingClient.getBooking(10L, 7L, "\"7-1-0\""))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"7-1-0\"").build()));
+
+        performAsync(mockMvc, get("/bookings/7")
+                        .header(USER_HEADER, "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"7-1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7-1-0\""));
     }
 
     @Test
     void getBookingShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(get("/bookings/7"))
+        performAsync(mockMvc, get("/bookings/7"))
                 .andExpect(status().isBadRequest());
 
         verifyNoInteractions(bookingClient);
@@ -170,9 +200,9 @@ class BookingControllerTest {
 
     @Test
     void approveShouldReturn200AndCallClient() throws Exception {
-        when(bookingClient.approve(10L, 5L, true)).thenReturn(ResponseEntity.ok(Map.of("id", 5, "status", "APPROVED")));
+        when(bookingClient.approve(10L, 5L, true)).thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 5, "status", "APPROVED"))));
 
-        mockMvc.perform(patch("/bookings/5")
+        performAsync(mockMvc, patch("/bookings/5")
                         .header(USER_HEADER, "10")
                         .param("approved", "true"))
                 .andExpect(status().isOk())
@@ -181,9 +211,45 @@ class BookingControllerTest {
         verify(bookingClient).approve(10L, 5L, true);
     }
 
+    @Test
+    void approveAllShouldCallClientWithIds() throws Exception {
+        when(bookingClient.approveAll(eq(10L), eq(true), any()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(Map.of("bookingId", 5, "status", "APPROVED")))));
+
+        performAsync(mockMvc, patch("/bookings/batch")
+                        .header(USER_HEADER, "10")
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[5,6]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPROVED"));
+
+        verify(bookingClient).approveAll(eq(10L), eq(true),
+                argThat(dto -> dto.getBookingIds().equals(List.of(5L, 6L))));
+    }
+
+    @Test
+    void approveAllShouldReturn400WhenIdsAreEmptyOrInvalid() throws Exception {
+        performAsync(mockMvc, patch("/bookings/batch")
+                        .header(USER_HEADER, "10")
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        performAsync(mockMvc, patch("/bookings/batch")
+                        .header(USER_HEADER, "10")
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[5,-1]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
     @Test
     void approveShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(patch("/bookings/5")
+        performAsync(mockMvc, patch("/bookings/5")
                         .param("approved", "true"))
                 .andExpect(status().isBadRequest());
 
@@ -192,19 +258,19 @@ class BookingControllerTest {
 
     @Test
     void getOwnerBookingShouldReturn200AndCallClientWithDefaults() throws Exception {
-        when(bookingClient.getOwnerBookings(eq(10L), any(), eq(0), eq(10)))
-                .thenReturn(ResponseEntity.ok(List.of()));
+        when(bookingClient.getOwnerBookings(eq(10L), any(), eq(0), eq(10), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of())));
 
-        mockMvc.perform(get("/bookings/owner")
+        performAsync(mockMvc, get("/bookings/owner")
                         .header(USER_HEADER, "10"))
                 .andExpect(status().isOk());
 
-        verify(bookingClient).getOwnerBookings(eq(10L), any(), eq(0), eq(10));
+        verify(bookingClient).getOwnerBookings(eq(10L), any(), eq(0), eq(10), isNull());
     }
 
     @Test
     void getOwnerBookingsShouldReturn400WhenUnknownState() throws Exception {
-        mockMvc.perform(get("/bookings/owner")
+        performAsync(mockMvc, get("/bookings/owner")
                         .header(USER_HEADER, "10")
                         .param("state", "nope"))
                 .andExpect(status().isBadRequest());
@@ -214,7 +280,7 @@ class BookingControllerTest {
 
     @Test
     void getOwnerBookingsShouldReturn400WhenFromNegative() throws Exception {
-        mockMvc.perform(get("/bookings/owner")
+        performAsync(mockMvc, get("/bookings/owner")
                         .header(USER_HEADER, "10")
                         .param("from", "-1"))
                 .andExpect(status().isBadRequest());
@@ -224,7 +290,7 @@ class BookingControllerTest {
 
     @Test
     void getOwnerBookingsShouldReturn400WhenSizeNotPositive() throws Exception {
-        mockMvc.perform(get("/bookings/owner")
+        performAsync(mockMvc, get("/bookings/owner")
                         .header(USER_HEADER, "10")
                         .param("size", "0"))
                 .andExpect(status().isBadRequest());
@@ -234,9 +300,9 @@ class BookingControllerTest {
 
     @Test
     void cancelShouldReturn200AndCallClient() throws Exception {
-        when(bookingClient.cancel(10L, 9L)).thenReturn(ResponseEntity.ok(Map.of("id", 9, "status", "CANCELED")));
+        when(bookingClient.cancel(10L, 9L)).thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 9, "status", "CANCELED"))));
 
-        mockMvc.perform(patch("/bookings/9/cancel")
+        performAsync(mockMvc, patch("/bookings/9/cancel")
                         .header(USER_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(9));
@@ -246,7 +312,7 @@ class BookingControllerTest {
 
     @Test
     void cancelShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(patch("/bookings/9/cancel"))
+        performAsync(mockMvc, patch("/bookings/9/cancel"))
                 .andExpect(status().isBadRequest());
 
         verifyNoInteractions(bookingClient);
@@ -1,69 +1,63 @@
 package ru.practicum.shareit.item;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpMethod;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.test.web.client.MockRestServiceServer;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriTemplateHandler;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.StubServer;
 import ru.practicum.item.client.ItemClient;
 import ru.practicum.item.dto.CommentCreateDto;
 import ru.practicum.item.dto.ItemCreateDto;
 import ru.practicum.item.dto.ItemUpdateDto;
 
-import java.util.function.Supplier;
+import java.nio.charset.StandardCharsets;
 
-import static org.springframework.test.web.client.ExpectedCount.once;
-import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
-import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class ItemClientTest {
 
-    private MockRestServiceServer server;
+    private StubServer server;
     private ItemClient client;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @BeforeEach
     void setUp() {
-        RestTemplate restTemplate = new RestTemplate();
-        server = MockRestServiceServer.bindTo(restTemplate).build();
-
-        RestTemplateBuilder builder = new RestTemplateBuilder() {
-            @Override
-            public RestTemplateBuilder uriTemplateHandler(UriTemplateHandler handler) {
-                restTemplate.setUriTemplateHandler(handler);
-                return this;
-            }
-
-            @Override
-            public RestTemplateBuilder requestFactory(Supplier<ClientHttpRequestFactory> requestFactorySupplier) {
-                return this;
-            }
-
-            @Override
-            public RestTemplate build() {
-                return restTemplate;
-            }
-        };
-
-        client = new ItemClient("http://localhost:9090", builder);
+        server = StubServer.start();
+        client = new ItemClient(server.webClient());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
     }
 
     @Test
     void addShouldPostToItemsWithUserHeader() {
         long userId = 1L;
 
-        server.expect(once(), requestTo("http://localhost:9090/items"))
-                .andExpect(method(HttpMethod.POST))
-                .andExpect(header(USER_ID_HEADER, String.valueOf(userId)))
-                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        client.add(userId, new ItemCreateDto()).block();
 
-        client.add(userId, new ItemCreateDto());
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.path()).isEqualTo("/items");
+        assertThat(request.method()).isEqualTo("POST");
+        assertThat(request.header(USER_ID_HEADER)).isEqualTo(String.valueOf(userId));
+    }
+
+    @Test
+    void importItemsShouldStreamBodyWithContentType() {
+        Flux<DataBuffer> body = Flux.just("{\"name\":\"Drill\"}\n", "{\"name\":\"Saw\"}\n")
+                .map(line -> DefaultDataBufferFactory.sharedInstance.wrap(line.getBytes(StandardCharsets.UTF_8)));
 
-        server.verify();
+        client.importItems(1L, MediaType.APPLICATION_NDJSON, body).block();
+
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.path()).isEqualTo("/items/import");
+        assertThat(request.method()).isEqualTo("POST");
+        assertThat(request.header("Content-Type")).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(request.body()).isEqualTo("{\"name\":\"Drill\"}\n{\"name\":\"Saw\"}\n");
     }
 
     @Test
@@ -71,14 +65,12 @@ public class ItemClientTest {
         long userId = 1L;
         long itemId = 2L;
 
-        server.expect(once(), requestTo("http://localhost:9090/items/" + itemId))
-                .andExpect(method(HttpMethod.PATCH))
-                .andExpect(header(USER_ID_HEADER, String.valueOf(userId)))
-                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
-
-        client.update(userId, itemId, new ItemUpdateDto());
+        client.update(userId, itemId, new ItemUpdateDto()).block();
 
-        server.verify();
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.path()).isEqualTo("/items/" + itemId);
+        assertThat(request.method()).isEqualTo("PATCH");
+        assertThat(request.header(USER_ID_HEADER)).isEqualTo(String.valueOf(userId));
     }
 
     @Test
@@ -86,42 +78,40 @@ public class ItemClientTest {
         long userId = 1L;
         long itemId = 2L;
 
-        server.expect(once(), requestTo("http://localhost:9090/items/" + itemId))
-                .andExpect(method(HttpMethod.GET))
-                .andExpect(header(USER_ID_HEADER, String.valueOf(userId)))
-                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        client.getById(userId, itemId, null).block();
 
-        client.getById(userId, itemId);
-
-        server.verify();
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.path()).isEqualTo("/items/" + itemId);
+        assertThat(request.method()).isEqualTo("GET");
+        assertThat(request.header(USER_ID_HEADER)).isEqualTo(String.valueOf(userId));
     }
 
     @Test
     void getAllShouldGetItemsWithUserHeader() {
         long userId = 1L;
 
-        server.expect(once(), requestTo("http://localhost:9090/items"))
-                .andExpect(method(HttpMethod.GET))
-                .andExpect(header(USER_ID_HEADER, String.valueOf(userId)))
-                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.respond(200, "application/json", "[]");
 
-        client.getAll(userId);
+        client.getAll(userId).block();
 
-        server.verify();
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.path()).isEqualTo("/items");
+        assertThat(request.method()).isEqualTo("GET");
+        assertThat(request.header(USER_ID_HEADER)).isEqualTo(String.valueOf(userId));
     }
 
     @Test
     void searchShouldGetSearchWithoutUserHeader() {
         String text = "drill";
 
-        server.expect(once(), requestTo("http://localhost:9090/items/search?text=" + text))
-                .andExpect(method(HttpMethod.GET))
-                .andExpect(headerDoesNotExist(USER_ID_HEADER))
-                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.respond(200, "application/json", "[]");
 
-        client.search(text);
+        client.search(text).block();
 
-        server.verify();
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.path()).isEqualTo("/items/search?text=" + text);
+        assertThat(request.method()).isEqualTo("GET");
+        assertThat(request.header(USER_ID_HEADER)).isNull();
     }
 
     @Test
@@ -129,13 +119,11 @@ public class ItemClientTest {
         long userId = 1L;
         long itemId = 2L;
 
-        server.expect(once(), requestTo("http://localhost:9090/items/" + itemId + "/comment"))
-                .andExpect(method(HttpMethod.POST))
-                .andExpect(header(USER_ID_HEADER, String.valueOf(userId)))
-                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
-
-        client.addComment(userId, itemId, new CommentCreateDto());
+        client.addComment(userId, itemId, new CommentCreateDto()).block();
 
-        server.verify();
+        StubServer.Request request = server.takeRequest();
+        assertThat(request.path()).isEqualTo("/items/" + itemId + "/comment");
+        assertThat(request.method()).isEqualTo("POST");
+        assertThat(request.header(USER_ID_HEADER)).isEqualTo(String.valueOf(userId));
     }
 }
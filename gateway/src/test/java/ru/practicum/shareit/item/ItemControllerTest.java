@@ -3,23 +3,40 @@ package ru.practicum.shareit.item;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.item.ItemController;
 import ru.practicum.item.client.ItemClient;
+import ru.practicum.item.search.ItemSearchCache;
+import ru.practicum.item.search.ItemSearchCacheProperties;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.*;
+import static ru.practicum.shareit.AsyncMvc.performAsync;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
+@Import(ItemSearchCache.class)
+@EnableConfigurationProperties(ItemSearchCacheProperties.class)
 class ItemControllerTest {
 
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
@@ -40,9 +57,9 @@ class ItemControllerTest {
         );
 
         when(itemClient.add(eq(10L), any()))
-                .thenReturn(ResponseEntity.ok(Map.of("id", 1, "name", "Drill")));
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 1, "name", "Drill"))));
 
-        mockMvc.perform(post("/items")
+        performAsync(mockMvc, post("/items")
                         .header(USER_ID_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
@@ -52,6 +69,51 @@ class ItemControllerTest {
         verify(itemClient).add(eq(10L), any());
     }
 
+    @Test
+    void importShouldStreamRequestBodyToClient() throws Exception {
+        String ndjson = "{\"name\":\"Drill\"}\n{\"name\":\"Saw\"}\n";
+        AtomicReference<String> forwarded = new AtomicReference<>();
+        when(itemClient.importItems(eq(10L), eq(MediaType.APPLICATION_NDJSON), any())).thenAnswer(invocation -> {
+            Flux<DataBuffer> body = invocation.getArgument(2);
+            return DataBufferUtils.join(body)
+                    .doOnNext(buffer -> forwarded.set(buffer.toString(StandardCharsets.UTF_8)))
+                    .thenReturn(ResponseEntity.ok((Object) Map.of("imported", 2, "failed", 0)));
+        });
+
+        performAsync(mockMvc, post("/items/import")
+                        .header(USER_ID_HEADER, "10")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        assertThat(forwarded.get()).isEqualTo(ndjson);
+    }
+
+    @Test
+    void exportShouldWriteClientStreamToResponse() throws Exception {
+        StreamingResponseBody body = out -> out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+        when(itemClient.exportAll(10L)).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body)));
+
+        performAsync(mockMvc, get("/items/export").header(USER_ID_HEADER, "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void importShouldReturn415ForUnsupportedContentType() throws Exception {
+        performAsync(mockMvc, post("/items/import")
+                        .header(USER_ID_HEADER, "10")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Drill"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(itemClient);
+    }
+
     @Test
     void addShouldReturn400WhenNoHeader() throws Exception {
         String body = objectMapper.writeValueAsString(
@@ -62,7 +124,7 @@ class ItemControllerTest {
                 )
         );
 
-        mockMvc.perform(post("/items")
+        performAsync(mockMvc, post("/items")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
                 .andExpect(status().isBadRequest());
@@ -74,7 +136,7 @@ class ItemControllerTest {
     void addShouldReturn400WhenInvalidBody() throws Exception {
         String body = "{}";
 
-        mockMvc.perform(post("/items")
+        performAsync(mockMvc, post("/items")
                         .header(USER_ID_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
@@ -88,9 +150,9 @@ class ItemControllerTest {
         String body = objectMapper.writeValueAsString(Map.of("name", "Updated"));
 
         when(itemClient.update(eq(10L), eq(5L), any()))
-                .thenReturn(ResponseEntity.ok(Map.of("id", 5, "name", "Updated")));
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 5, "name", "Updated"))));
 
-        mockMvc.perform(patch("/items/5")
+        performAsync(mockMvc, patch("/items/5")
                         .header(USER_ID_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
@@ -102,7 +164,7 @@ class ItemControllerTest {
 
     @Test
     void updateShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(patch("/items/5")
+        performAsync(mockMvc, patch("/items/5")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"name\":\"Updated\"}"))
                 .andExpect(status().isBadRequest());
@@ -112,19 +174,29 @@ class ItemControllerTest {
 
     @Test
     void getByIdShouldReturn200AndCallClient() throws Exception {
-        when(itemClient.getById(10L, 7L)).thenReturn(ResponseEntity.ok(Map.of("id", 7)));
+        when(itemClient.getById(10L, 7L, null)).thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 7))));
 
-        mockMvc.perform(get("/items/7")
+        performAsync(mockMvc, get("/items/7")
                         .header(USER_ID_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(7));
 
-        verify(itemClient).getById(10L, 7L);
+        verify(itemClient).getById(10L, 7L, null);
+    }
+
+    @Test
+    void getByIdShouldReturn502WhenServerResponseExceedsBufferLimit() throws Exception {
+        when(itemClient.getById(10L, 7L, null))
+                .thenReturn(Mono.error(new DataBufferLimitException("Exceeded limit on max bytes to buffer : 1048576")));
+
+        performAsync(mockMvc, get("/items/7").header(USER_ID_HEADER, "10"))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.error").value(startsWith("Ответ сервера слишком большой")));
     }
 
     @Test
     void getByIdShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(get("/items/7"))
+        performAsync(mockMvc, get("/items/7"))
                 .andExpect(status().isBadRequest());
 
         verifyNoInteractions(itemClient);
@@ -132,9 +204,9 @@ class ItemControllerTest {
 
     @Test
     void getAllShouldReturn200AndCallClient() throws Exception {
-        when(itemClient.getAll(10L)).thenReturn(ResponseEntity.ok(List.of(Map.of("id", 1), Map.of("id", 2))));
+        when(itemClient.getAll(10L)).thenReturn(Mono.just(ResponseEntity.ok(List.of(Map.of("id", 1), Map.of("id", 2)))));
 
-        mockMvc.perform(get("/items")
+        performAsync(mockMvc, get("/items")
                         .header(USER_ID_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2));
@@ -142,9 +214,23 @@ class ItemControllerTest {
         verify(itemClient).getAll(10L);
     }
 
+    @Test
+    void getAllShouldWriteServerBytesAsIs() throws Exception {
+        byte[] serverBody = "[ {\"id\" : 1}, {\"id\" : 2} ]".getBytes(StandardCharsets.UTF_8);
+        when(itemClient.getAll(10L)).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serverBody)));
+
+        performAsync(mockMvc, get("/items")
+                        .header(USER_ID_HEADER, "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(serverBody));
+    }
+
     @Test
     void getAllShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(get("/items"))
+        performAsync(mockMvc, get("/items"))
                 .andExpect(status().isBadRequest());
 
         verifyNoInteractions(itemClient);
@@ -152,9 +238,9 @@ class ItemControllerTest {
 
     @Test
     void searchShouldReturn200AndCallClientWhenTextProvided() throws Exception {
-        when(itemClient.search("drill")).thenReturn(ResponseEntity.ok(List.of(Map.of("id", 1))));
+        when(itemClient.search("drill")).thenReturn(Mono.just(ResponseEntity.ok(List.of(Map.of("id", 1)))));
 
-        mockMvc.perform(get("/items/search")
+        performAsync(mockMvc, get("/items/search")
                         .param("text", "drill"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
@@ -164,7 +250,7 @@ class ItemControllerTest {
 
     @Test
     void searchShouldReturn200AndEmptyListWhenTextBlankAndNotCallClient() throws Exception {
-        mockMvc.perform(get("/items/search")
+        performAsync(mockMvc, get("/items/search")
                         .param("text", "   "))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
@@ -174,7 +260,7 @@ class ItemControllerTest {
 
     @Test
     void searchShouldReturn200AndEmptyListWhenTextMissingAndNotCallClient() throws Exception {
-        mockMvc.perform(get("/items/search"))
+        performAsync(mockMvc, get("/items/search"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
 
@@ -186,9 +272,9 @@ class ItemControllerTest {
         String body = objectMapper.writeValueAsString(Map.of("text", "Great!"));
 
         when(itemClient.addComment(eq(10L), eq(5L), any()))
-                .thenReturn(ResponseEntity.ok(Map.of("id", 99, "text", "Great!")));
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 99, "text", "Great!"))));
 
-        mockMvc.perform(post("/items/5/comment")
+        performAsync(mockMvc, post("/items/5/comment")
                         .header(USER_ID_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
@@ -201,7 +287,7 @@ class ItemControllerTest {
 
     @Test
     void addCommentShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(post("/items/5/comment")
+        performAsync(mockMvc, post("/items/5/comment")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"text\":\"Great!\"}"))
                 .andExpect(status().isBadRequest());
@@ -213,7 +299,7 @@ class ItemControllerTest {
     void addCommentShouldReturn400WhenInvalidBody() throws Exception {
         String body = objectMapper.writeValueAsString(Map.of("text", "   "));
 
-        mockMvc.perform(post("/items/5/comment")
+        performAsync(mockMvc, post("/items/5/comment")
                         .header(USER_ID_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
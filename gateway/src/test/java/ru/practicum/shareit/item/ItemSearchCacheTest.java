@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.item.client.ItemClient;
+import ru.practicum.item.search.ItemSearchCache;
+import ru.practicum.item.search.ItemSearchCacheProperties;
+import ru.practicum.shareit.StubServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchCacheTest {
+    private static final String BODY = "[{\"id\":1,\"name\":\"Дрель\"}]";
+
+    private StubServer server;
+    private ItemSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        server = StubServer.start();
+        server.respond(200, "application/json", BODY, Map.of(ItemSearchCache.VERSION_HEADER, "v1"));
+        cache = new ItemSearchCache(new ItemClient(server.webClient()),
+                new ItemSearchCacheProperties(100, Duration.ofMinutes(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void repeatedSearchShouldBeServedFromCacheRegardlessOfCase() {
+        ResponseEntity<Object> first = cache.search("Дрель", null).block();
+        ResponseEntity<Object> second = cache.search("дРЕЛЬ", null).block();
+
+        assertThat(server.requestCount()).isEqualTo(1);
+        assertThat(server.takeRequest().path()).isEqualTo("/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat((byte[]) second.getBody()).isEqualTo(BODY.getBytes(StandardCharsets.UTF_8));
+        assertThat(second.getHeaders().getETag()).isNotNull().isEqualTo(first.getHeaders().getETag());
+    }
+
+    @Test
+    void matchingIfNoneMatchShouldReturn304WithoutBody() {
+        String etag = cache.search("drill", null).block().getHeaders().getETag();
+
+        ResponseEntity<Object> notModified = cache.search("drill", "\"other\", " + etag).block();
+        ResponseEntity<Object> modified = cache.search("drill", "\"other\"").block();
+
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(notModified.hasBody()).isFalse();
+        assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(server.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void newItemsVersionShouldInvalidateCache() {
+        cache.search("drill", null).block();
+
+        cache.observe(ResponseEntity.ok().header(ItemSearchCache.VERSION_HEADER, "v1").build());
+        cache.search("drill", null).block();
+        assertThat(server.requestCount()).isEqualTo(1);
+
+        server.respond(200, "application/json", "[]", Map.of(ItemSearchCache.VERSION_HEADER, "v2"));
+        cache.observe(ResponseEntity.ok().header(ItemSearchCache.VERSION_HEADER, "v2").build());
+        ResponseEntity<Object> fresh = cache.search("drill", null).block();
+
+        assertThat(server.requestCount()).isEqualTo(2);
+        assertThat(new String((byte[]) fresh.getBody(), StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    @Test
+    void responseOvertakenByItemChangeShouldNotBeCached() {
+        cache.observe(ResponseEntity.ok().header(ItemSearchCache.VERSION_HEADER, "v1").build());
+        server.respond(200, "application/json", BODY, Map.of());
+
+        cache.search("drill", null).block();
+        cache.search("drill", null).block();
+
+        assertThat(server.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void errorsShouldNotBeCached() {
+        server.respond(500, "application/json", "{\"error\":\"boom\"}");
+
+        ResponseEntity<Object> response = cache.search("drill", null).block();
+        cache.search("drill", null).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(server.requestCount()).isEqualTo(2);
+    }
+}
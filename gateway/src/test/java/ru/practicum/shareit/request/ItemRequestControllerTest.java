@@ -7,12 +7,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.request.ItemRequestController;
 import ru.practicum.request.client.ItemRequestClient;
 
 import java.util.List;
 import java.util.Map;
 
+import static ru.practicum.shareit.AsyncMvc.performAsync;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,9 +36,9 @@ class ItemRequestControllerTest {
         String body = "{\"description\":\"Need a drill\"}";
 
         when(itemRequestClient.create(eq(10L), any()))
-                .thenReturn(ResponseEntity.ok(Map.of("id", 1, "description", "Need a drill", "items", List.of())));
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 1, "description", "Need a drill", "items", List.of()))));
 
-        mockMvc.perform(post("/requests")
+        performAsync(mockMvc, post("/requests")
                         .header(USER_ID_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
@@ -50,7 +52,7 @@ class ItemRequestControllerTest {
     void createShouldReturn400WhenNoHeader() throws Exception {
         String body = "{\"description\":\"Need a drill\"}";
 
-        mockMvc.perform(post("/requests")
+        performAsync(mockMvc, post("/requests")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
                 .andExpect(status().isBadRequest());
@@ -60,7 +62,7 @@ class ItemRequestControllerTest {
 
     @Test
     void createShouldReturn400WhenMalformedJson() throws Exception {
-        mockMvc.perform(post("/requests")
+        performAsync(mockMvc, post("/requests")
                         .header(USER_ID_HEADER, "10")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{"))
@@ -71,9 +73,9 @@ class ItemRequestControllerTest {
 
     @Test
     void getOwnShouldReturn200AndCallClient() throws Exception {
-        when(itemRequestClient.getOwn(10L)).thenReturn(ResponseEntity.ok(List.of(Map.of("id", 1), Map.of("id", 2))));
+        when(itemRequestClient.getOwn(10L)).thenReturn(Mono.just(ResponseEntity.ok(List.of(Map.of("id", 1), Map.of("id", 2)))));
 
-        mockMvc.perform(get("/requests")
+        performAsync(mockMvc, get("/requests")
                         .header(USER_ID_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2));
@@ -83,7 +85,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getOwnShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(get("/requests"))
+        performAsync(mockMvc, get("/requests"))
                 .andExpect(status().isBadRequest());
 
         verifyNoInteractions(itemRequestClient);
@@ -91,9 +93,9 @@ class ItemRequestControllerTest {
 
     @Test
     void getOthersShouldReturn200AndCallClient() throws Exception {
-        when(itemRequestClient.getOthers(10L)).thenReturn(ResponseEntity.ok(List.of()));
+        when(itemRequestClient.getOthers(10L)).thenReturn(Mono.just(ResponseEntity.ok(List.of())));
 
-        mockMvc.perform(get("/requests/all")
+        performAsync(mockMvc, get("/requests/all")
                         .header(USER_ID_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
@@ -103,7 +105,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getOthersShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(get("/requests/all"))
+        performAsync(mockMvc, get("/requests/all"))
                 .andExpect(status().isBadRequest());
 
         verifyNoInteractions(itemRequestClient);
@@ -111,19 +113,19 @@ class ItemRequestControllerTest {
 
     @Test
     void getByIdShouldReturn200AndCallClient() throws Exception {
-        when(itemRequestClient.getById(10L, 5L)).thenReturn(ResponseEntity.ok(Map.of("id", 5)));
+        when(itemRequestClient.getById(10L, 5L, null)).thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 5))));
 
-        mockMvc.perform(get("/requests/5")
+        performAsync(mockMvc, get("/requests/5")
                         .header(USER_ID_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(5));
 
-        verify(itemRequestClient).getById(10L, 5L);
+        verify(itemRequestClient).getById(10L, 5L, null);
     }
 
     @Test
     void getByIdShouldReturn400WhenNoHeader() throws Exception {
-        mockMvc.perform(get("/requests/5"))
+        performAsync(mockMvc, get("/requests/5"))
                 .andExpect(status().isBadRequest());
 
         verifyNoInteractions(itemRequestClient);
@@ -8,12 +8,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.user.client.UserClient;
 import ru.practicum.user.controller.UserController;
 
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
+import static ru.practicum.shareit.AsyncMvc.performAsync;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,9 +35,9 @@ class UserControllerTest {
         );
 
         when(userClient.create(any()))
-                .thenReturn(ResponseEntity.ok(Map.of("id", 1, "name", "Юля", "email", "yulia@mail.com")));
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 1, "name", "Юля", "email", "yulia@mail.com"))));
 
-        mockMvc.perform(post("/users")
+        performAsync(mockMvc, post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
                 .andExpect(status().isOk())
@@ -48,7 +50,7 @@ class UserControllerTest {
     void createShouldReturn400WhenInvalidBody() throws Exception {
         String body = "{}";
 
-        mockMvc.perform(post("/users")
+        performAsync(mockMvc, post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
                 .andExpect(status().isBadRequest());
@@ -62,9 +64,9 @@ class UserControllerTest {
                 Map.of("name", "New", "email", "new@mail.com"));
 
         when(userClient.update(eq(5L), any()))
-                .thenReturn(ResponseEntity.ok(Map.of("id", 5, "name", "New", "email", "new@mail.com")));
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 5, "name", "New", "email", "new@mail.com"))));
 
-        mockMvc.perform(patch("/users/5")
+        performAsync(mockMvc, patch("/users/5")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
                 .andExpect(status().isOk())
@@ -79,7 +81,7 @@ class UserControllerTest {
                 Map.of("email", "not-email")
         );
 
-        mockMvc.perform(patch("/users/5")
+        performAsync(mockMvc, patch("/users/5")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
                 .andExpect(status().isBadRequest());
@@ -89,20 +91,20 @@ class UserControllerTest {
 
     @Test
     void getByIdShouldReturn200AndCallClient() throws Exception {
-        when(userClient.getById(7L)).thenReturn(ResponseEntity.ok(Map.of("id", 7)));
+        when(userClient.getById(7L, null)).thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 7))));
 
-        mockMvc.perform(get("/users/7"))
+        performAsync(mockMvc, get("/users/7"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(7));
 
-        verify(userClient).getById(7L);
+        verify(userClient).getById(7L, null);
     }
 
     @Test
     void getAllShouldReturn200AndCallClient() throws Exception {
-        when(userClient.getAll()).thenReturn(ResponseEntity.ok("[]"));
+        when(userClient.getAll()).thenReturn(Mono.just(ResponseEntity.ok("[]")));
 
-        mockMvc.perform(get("/users"))
+        performAsync(mockMvc, get("/users"))
                 .andExpect(status().isOk());
 
         verify(userClient).getAll();
@@ -110,9 +112,9 @@ class UserControllerTest {
 
     @Test
     void deleteShouldReturn200AndCallClient() throws Exception {
-        when(userClient.delete(3L)).thenReturn(ResponseEntity.ok().build());
+        when(userClient.delete(3L)).thenReturn(Mono.just(ResponseEntity.ok().build()));
 
-        mockMvc.perform(delete("/users/3"))
+        performAsync(mockMvc, delete("/users/3"))
                 .andExpect(status().isOk());
 
         verify(userClient).delete(3L);
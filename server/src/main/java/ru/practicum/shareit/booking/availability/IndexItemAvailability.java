@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.availability;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.ItemBookingShortView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ответы без обращения к БД по {@link ItemAvailabilityIndex}. Индекс строится при старте
+ * и обновляется после коммита транзакций, создавших бронь или сменивших её статус.
+ * Изменения, сделанные в обход {@code BookingService} или другим экземпляром сервера, индекс
+ * не видит, поэтому {@code shareit.booking.availability=index} допустим только для одного экземпляра.
+ * <p>
+ * При старте загружаются незакончившиеся активные брони и по одной последней закончившейся
+ * подтверждённой на вещь; при каждом изменении брони закончившиеся окна вещи вырезаются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.booking", name = "availability", havingValue = "index")
+public class IndexItemAvailability implements ItemAvailability {
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, WARM_UP_PAGE_SIZE, Sort.by("id"));
+        Slice<Booking> slice;
+        do {
+            slice = bookingRepository.findAllByStatusInAndEndAfter(ACTIVE_STATUSES, now, page);
+            slice.forEach(booking -> apply(BookingChangedEvent.of(booking)));
+            page = page.next();
+        } while (slice.hasNext());
+        bookingRepository.findLastEndedByStatus(BookingStatus.APPROVED, now).forEach(booking ->
+                index.put(booking.itemId(), booking.id(), booking.bookerId(), booking.start(), booking.end(), true));
+        log.info("Item availability index built: {} bookings", index.size());
+    }
+
+    // раньше синхронизаций без порядка, в том числе снятия блокировки вещи в BookingServiceImpl:
+    // иначе следующий запрос успеет проверить пересечения по индексу без только что закоммиченной брони
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        apply(event);
+        index.prune(event.itemId(), LocalDateTime.now());
+    }
+
+    @Override
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        return index.isFree(itemId, start, end);
+    }
+
+    @Override
+    public List<ItemBookingShortView> findLastApproved(Collection<Long> itemIds, LocalDateTime now) {
+        return itemIds.stream()
+                .map(itemId -> index.lastApproved(itemId, now))
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    @Override
+    public List<ItemBookingShortView> findNextApproved(Collection<Long> itemIds, LocalDateTime now) {
+        return itemIds.stream()
+                .map(itemId -> index.nextApproved(itemId, now))
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    private void apply(BookingChangedEvent event) {
+        if (ACTIVE_STATUSES.contains(event.status())) {
+            index.put(event.itemId(), event.bookingId(), event.bookerId(),
+                    event.start(), event.end(), event.status() == BookingStatus.APPROVED);
+        } else {
+            index.remove(event.itemId(), event.bookingId());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.dto.ItemBookingShortView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Занятость вещей активными бронями. Реализация выбирается свойством
+ * {@code shareit.booking.availability}: {@code db} (запросы к bookings, по умолчанию)
+ * или {@code index} ({@link ItemAvailabilityIndex} в памяти).
+ */
+public interface ItemAvailability {
+
+    /**
+     * @return {@code true}, если полуинтервал [start, end) не пересекается с ожидающими
+     * и подтверждёнными бронями вещи
+     */
+    boolean isFree(long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * @return по одной последней начавшейся подтверждённой брони на вещь
+     */
+    List<ItemBookingShortView> findLastApproved(Collection<Long> itemIds, LocalDateTime now);
+
+    /**
+     * @return по одной ближайшей будущей подтверждённой брони на вещь
+     */
+    List<ItemBookingShortView> findNextApproved(Collection<Long> itemIds, LocalDateTime now);
+}
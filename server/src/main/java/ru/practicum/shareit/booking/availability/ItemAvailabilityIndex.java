@@ -0,0 +1,202 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.dto.ItemBookingShortView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Активные (ожидающие и подтверждённые) брони по вещам в памяти.
+ * <p>
+ * На каждую вещь — {@link ItemTimeline}; изменения и чтения одной вещи идут под её замком,
+ * разные вещи друг друга не блокируют. Время хранится с точностью до микросекунд, как в БД.
+ * <p>
+ * Замок — {@link java.util.concurrent.locks.ReentrantLock}, а не {@code synchronized}: в JDK 21
+ * ожидание монитора закрепляет виртуальный поток за несущим.
+ * <p>
+ * Закончившиеся брони не нужны ни для проверки новых окон, ни для следующей брони; {@link #prune}
+ * оставляет из них только последнюю подтверждённую, а опустевшую ленту вещи убирает из карты,
+ * так что память растёт с числом вещей с бронями и будущих броней, а не с историей.
+ */
+public class ItemAvailabilityIndex {
+    private final ConcurrentHashMap<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    public void put(long itemId, long bookingId, long bookerId,
+                    LocalDateTime start, LocalDateTime end, boolean approved) {
+        while (true) {
+            ItemTimeline timeline = timelines.computeIfAbsent(itemId, id -> new ItemTimeline());
+            timeline.lock.lock();
+            try {
+                // лента опустела и убрана из карты, пока ждали замок: берём новую
+                if (!timeline.detached) {
+                    timeline.put(bookingId, bookerId, toMicros(start), toMicros(end), approved);
+                    return;
+                }
+            } finally {
+                timeline.lock.unlock();
+            }
+        }
+    }
+
+    public void remove(long itemId, long bookingId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return;
+        }
+        timeline.lock.lock();
+        try {
+            timeline.remove(bookingId);
+            detachIfEmpty(itemId, timeline);
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Вырезает закончившиеся к {@code now} брони вещи, кроме последней подтверждённой.
+     *
+     * @return число удалённых броней
+     */
+    public int prune(long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return 0;
+        }
+        timeline.lock.lock();
+        try {
+            int removed = timeline.prune(toMicros(now));
+            detachIfEmpty(itemId, timeline);
+            return removed;
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Убирает пустую ленту из карты. Вызывается под её замком; {@link #put}, успевший получить
+     * эту ленту, увидит {@code detached} и создаст новую.
+     */
+    private void detachIfEmpty(long itemId, ItemTimeline timeline) {
+        if (timeline.size() == 0 && !timeline.detached) {
+            timeline.detached = true;
+            timelines.remove(itemId, timeline);
+        }
+    }
+
+    /**
+     * То же для всех вещей.
+     *
+     * @return число удалённых броней
+     */
+    public int prune(LocalDateTime now) {
+        int removed = 0;
+        for (Long itemId : timelines.keySet()) {
+            removed += prune(itemId, now);
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (ItemTimeline timeline : timelines.values()) {
+            timeline.lock.lock();
+            try {
+                size += timeline.size();
+            } finally {
+                timeline.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return число вещей, для которых в памяти есть лента броней
+     */
+    public int itemCount() {
+        return timelines.size();
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return true;
+        }
+        timeline.lock.lock();
+        try {
+            return timeline.isFree(toMicros(start), toMicros(end));
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * @return самое раннее начало окна длиной {@code duration}, не раньше {@code from}, без активных броней
+     */
+    public LocalDateTime nextFreeSlot(long itemId, LocalDateTime from, Duration duration) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return from;
+        }
+        long durationMicros = TimeUnit.NANOSECONDS.toMicros(duration.toNanos());
+        timeline.lock.lock();
+        try {
+            return fromMicros(timeline.nextFree(toMicros(from), durationMicros));
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Последняя начавшаяся подтверждённая бронь — как {@code BookingRepository.findLastByItemIds}.
+     */
+    public Optional<ItemBookingShortView> lastApproved(long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return Optional.empty();
+        }
+        timeline.lock.lock();
+        try {
+            return view(itemId, timeline, timeline.lastApproved(toMicros(now)));
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Ближайшая будущая подтверждённая бронь — как {@code BookingRepository.findNextByItemIds}.
+     */
+    public Optional<ItemBookingShortView> nextApproved(long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return Optional.empty();
+        }
+        timeline.lock.lock();
+        try {
+            return view(itemId, timeline, timeline.nextApproved(toMicros(now)));
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    private static Optional<ItemBookingShortView> view(long itemId, ItemTimeline timeline, int i) {
+        if (i < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new ItemBookingShortView(
+                itemId, timeline.id(i), timeline.bookerId(i),
+                fromMicros(timeline.start(i)), fromMicros(timeline.end(i))));
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
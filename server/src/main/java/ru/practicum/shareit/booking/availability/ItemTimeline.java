@@ -0,0 +1,241 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Активные брони одной вещи в виде параллельных массивов, отсортированных по (start, id).
+ * Время хранится в микросекундах. {@code maxEnds[i]} — максимальный конец среди первых i + 1
+ * броней: он монотонен, поэтому и проверка окна, и поиск свободного слота сводятся
+ * к бинарному поиску, даже если в данных остались пересекающиеся брони.
+ * Закончившиеся брони вырезаются {@link #prune}, кроме последней подтверждённой: она ещё нужна
+ * для {@link #lastApproved}.
+ * Не потокобезопасен: {@link ItemAvailabilityIndex} обращается к нему только под {@link #lock}.
+ */
+final class ItemTimeline {
+    private static final int INITIAL_CAPACITY = 4;
+
+    final ReentrantLock lock = new ReentrantLock();
+    // лента пуста и убрана из индекса; меняется только под lock
+    boolean detached;
+
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private long[] maxEnds = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] bookerIds = new long[INITIAL_CAPACITY];
+    private boolean[] approved = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    void put(long id, long bookerId, long start, long end, boolean isApproved) {
+        remove(id);
+        ensureCapacity();
+        int at = insertionPoint(start, id);
+        int tail = size - at;
+        System.arraycopy(starts, at, starts, at + 1, tail);
+        System.arraycopy(ends, at, ends, at + 1, tail);
+        System.arraycopy(ids, at, ids, at + 1, tail);
+        System.arraycopy(bookerIds, at, bookerIds, at + 1, tail);
+        System.arraycopy(approved, at, approved, at + 1, tail);
+        starts[at] = start;
+        ends[at] = end;
+        ids[at] = id;
+        bookerIds[at] = bookerId;
+        approved[at] = isApproved;
+        size++;
+        recomputeMaxEnds(at);
+    }
+
+    boolean remove(long id) {
+        int at = indexOf(id);
+        if (at < 0) {
+            return false;
+        }
+        int tail = size - at - 1;
+        System.arraycopy(starts, at + 1, starts, at, tail);
+        System.arraycopy(ends, at + 1, ends, at, tail);
+        System.arraycopy(ids, at + 1, ids, at, tail);
+        System.arraycopy(bookerIds, at + 1, bookerIds, at, tail);
+        System.arraycopy(approved, at + 1, approved, at, tail);
+        size--;
+        recomputeMaxEnds(at);
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет брони, закончившиеся не позже {@code now}, кроме подтверждённой с наибольшим (start, id):
+     * более ранние закончившиеся уже не могут стать ответом {@link #lastApproved} при {@code now} и позже.
+     *
+     * @return число удалённых броней
+     */
+    int prune(long now) {
+        int lastEnded = size - 1;
+        while (lastEnded >= 0 && !(approved[lastEnded] && ends[lastEnded] <= now)) {
+            lastEnded--;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (ends[i] > now || i == lastEnded) {
+                starts[kept] = starts[i];
+                ends[kept] = ends[i];
+                ids[kept] = ids[i];
+                bookerIds[kept] = bookerIds[i];
+                approved[kept] = approved[i];
+                kept++;
+            }
+        }
+        int removed = size - kept;
+        if (removed > 0) {
+            size = kept;
+            recomputeMaxEnds(0);
+            shrinkCapacity();
+        }
+        return removed;
+    }
+
+    /**
+     * Полуинтервал [start, end) свободен, если все брони, начавшиеся до {@code end}, закончились
+     * не позже {@code start}.
+     */
+    boolean isFree(long start, long end) {
+        int before = firstStartAtLeast(end);
+        return before == 0 || maxEnds[before - 1] <= start;
+    }
+
+    /**
+     * @return самый ранний момент не раньше {@code from}, с которого свободно {@code duration} микросекунд
+     */
+    long nextFree(long from, long duration) {
+        long candidate = from;
+        for (int i = firstMaxEndAfter(from); i < size; i++) {
+            if (starts[i] >= candidate + duration) {
+                return candidate;
+            }
+            candidate = Math.max(candidate, ends[i]);
+        }
+        return candidate;
+    }
+
+    /**
+     * @return позиция подтверждённой брони с наибольшим (start, id) при start &lt; now или -1
+     */
+    int lastApproved(long now) {
+        int i = firstStartAtLeast(now) - 1;
+        while (i >= 0 && !approved[i]) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * @return позиция подтверждённой брони с наименьшим (start, id) при start &gt; now или -1
+     */
+    int nextApproved(long now) {
+        int i = firstStartAtLeast(now);
+        while (i < size && (starts[i] == now || !approved[i])) {
+            i++;
+        }
+        return i < size ? i : -1;
+    }
+
+    long id(int i) {
+        return ids[i];
+    }
+
+    long bookerId(int i) {
+        return bookerIds[i];
+    }
+
+    long start(int i) {
+        return starts[i];
+    }
+
+    long end(int i) {
+        return ends[i];
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int insertionPoint(long start, long id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < start || (starts[mid] == start && ids[mid] < id)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int firstStartAtLeast(long value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int firstMaxEndAfter(long value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnds[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void recomputeMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size < starts.length) {
+            return;
+        }
+        resize(starts.length * 2);
+    }
+
+    private void shrinkCapacity() {
+        if (starts.length > INITIAL_CAPACITY && size <= starts.length / 4) {
+            resize(Math.max(INITIAL_CAPACITY, size * 2));
+        }
+    }
+
+    private void resize(int capacity) {
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        maxEnds = Arrays.copyOf(maxEnds, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        bookerIds = Arrays.copyOf(bookerIds, capacity);
+        approved = Arrays.copyOf(approved, capacity);
+    }
+}
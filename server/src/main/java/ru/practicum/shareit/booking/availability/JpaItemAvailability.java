@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.ItemBookingShortView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Каждый ответ — запрос к bookings. Видит брони, записанные в обход сервиса и в текущей транзакции.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.booking", name = "availability", havingValue = "db", matchIfMissing = true)
+public class JpaItemAvailability implements ItemAvailability {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        return !bookingRepository.existsOverlapping(itemId, ACTIVE_STATUSES, start, end);
+    }
+
+    @Override
+    public List<ItemBookingShortView> findLastApproved(Collection<Long> itemIds, LocalDateTime now) {
+        return bookingRepository.findLastByItemIds(itemIds, BookingStatus.APPROVED, now);
+    }
+
+    @Override
+    public List<ItemBookingShortView> findNextApproved(Collection<Long> itemIds, LocalDateTime now) {
+        return bookingRepository.findNextByItemIds(itemIds, BookingStatus.APPROVED, now);
+    }
+}
@@ -1,11 +1,21 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.dto.BookingBatchApproveDto;
 import ru.practicum.shareit.booking.dto.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.common.NdjsonWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -16,7 +26,9 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto create(@RequestHeader(USER_HEADER) Long userId,
@@ -31,22 +43,49 @@ public class BookingController {
         return bookingService.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionDto> approveAll(@RequestHeader(USER_HEADER) Long userId,
+                                               @RequestParam boolean approved,
+                                               @RequestBody BookingBatchApproveDto dto) {
+        return bookingService.approveAll(userId, dto.getBookingIds(), approved);
+    }
+
+    // версия проверяется одним лёгким запросом; при совпадении с If-None-Match DTO не собирается
     @GetMapping("/{bookingId}")
     public BookingDto getById(@RequestHeader(USER_HEADER) Long userId,
-                              @PathVariable Long bookingId) {
+                              @PathVariable Long bookingId,
+                              WebRequest request) {
+        if (request.checkNotModified(bookingService.getETag(userId, bookingId))) {
+            return null;
+        }
         return bookingService.getById(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingDto> getByBooker(@RequestHeader(USER_HEADER) Long userId,
-                                        @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getByBooker(userId, state);
+    public ResponseEntity<List<BookingDto>> getByBooker(@RequestHeader(USER_HEADER) Long userId,
+                                                        @RequestParam(defaultValue = "ALL") String state,
+                                                        @RequestParam(defaultValue = "0") int from,
+                                                        @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String cursor) {
+        return toResponse(bookingService.getByBooker(userId, state, from, size, cursor));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getByOwner(@RequestHeader(USER_HEADER) Long userId,
-                                       @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getByOwner(userId, state);
+    public ResponseEntity<List<BookingDto>> getByOwner(@RequestHeader(USER_HEADER) Long userId,
+                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                       @RequestParam(defaultValue = "0") int from,
+                                                       @RequestParam(defaultValue = "10") int size,
+                                                       @RequestParam(required = false) String cursor) {
+        return toResponse(bookingService.getByOwner(userId, state, from, size, cursor));
+    }
+
+    // все брони владельца без пагинации: пишутся в ответ по мере чтения курсора
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportByOwner(@RequestHeader(USER_HEADER) Long userId,
+                              HttpServletResponse response) throws IOException {
+        NdjsonWriter<BookingDto> writer = new NdjsonWriter<>(objectMapper, response);
+        bookingService.exportByOwner(userId, writer);
+        writer.finish();
     }
 
     @PatchMapping("/{bookingId}/cancel")
@@ -54,4 +93,12 @@ public class BookingController {
                              @PathVariable Long bookingId) {
         return bookingService.cancel(userId, bookingId);
     }
+
+    private static ResponseEntity<List<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingBatchApproveDto {
+    public static final int MAX_SIZE = 1000;
+
+    private List<Long> bookingIds;
+}
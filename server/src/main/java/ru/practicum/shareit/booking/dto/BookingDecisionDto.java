@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Итог пакетного подтверждения по одной брони: новый статус либо причина отказа.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto {
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+
+    public static BookingDecisionDto decided(Long bookingId, BookingStatus status) {
+        return new BookingDecisionDto(bookingId, status, null);
+    }
+
+    public static BookingDecisionDto failed(Long bookingId, String error) {
+        return new BookingDecisionDto(bookingId, null, error);
+    }
+}
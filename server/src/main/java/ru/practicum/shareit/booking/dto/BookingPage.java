@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Страница бронирований и курсор для запроса следующей страницы
+ * ({@code null}, если страница последняя).
+ */
+@Value
+public class BookingPage {
+    List<BookingDto> bookings;
+    String nextCursor;
+}
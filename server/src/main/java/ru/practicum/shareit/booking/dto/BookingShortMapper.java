@@ -9,4 +9,6 @@ public interface BookingShortMapper {
 
     @Mapping(target = "bookerId", source = "booker.id")
     BookingShortDto toDto(Booking booking);
+
+    BookingShortDto toDto(ItemBookingShortView view);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Участники и версии строк, из которых собирается {@link BookingDto}: по ним проверяется доступ
+ * и строится ETag без загрузки сущностей. Имя вещи входит в DTO, поэтому учитывается и её версия.
+ */
+public record BookingVersionView(Long bookerId, Long ownerId, Long bookingVersion, Long itemVersion) {
+
+    public String etag(long bookingId) {
+        return bookingId + "-" + bookingVersion + "-" + itemVersion;
+    }
+}
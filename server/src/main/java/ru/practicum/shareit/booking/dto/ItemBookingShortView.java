@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция ближайшего бронирования вещи: по одной строке на вещь.
+ */
+public record ItemBookingShortView(Long itemId, Long id, Long bookerId, LocalDateTime start, LocalDateTime end) {
+}
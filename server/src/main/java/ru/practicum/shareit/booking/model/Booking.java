@@ -37,7 +37,27 @@ public class Booking {
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
 
+    /**
+     * Текущий владелец вещи — копия {@code items.owner_id}, чтобы списки броней владельца читались
+     * по индексу bookings без join с items. Приложение владельца вещи не меняет; если его меняют
+     * в БД, триггер {@code trg_items_owner_to_bookings} (schema-postgres.sql) переносит брони
+     * к новому владельцу и увеличивает их {@link #version}, чтобы сменился ETag.
+     */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
     private BookingStatus status;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @PrePersist
+    void fillOwnerId() {
+        if (ownerId == null && item != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
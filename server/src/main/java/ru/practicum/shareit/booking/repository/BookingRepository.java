@@ -1,46 +1,172 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.dto.ItemBookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Списочные запросы подгружают item и booker одним join-ом: BookingMapper читает их для каждой строки.
+ * Брони владельца фильтруются по денормализованному {@code bookings.owner_id}, а не через items.
+ */
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(Long bookerId, Sort sort);
+    @Query("""
+            select new ru.practicum.shareit.booking.dto.BookingVersionView(
+                b.booker.id, i.owner.id, b.version, i.version)
+            from Booking b join b.item i
+            where b.id = :bookingId
+            """)
+    Optional<BookingVersionView> findVersionById(@Param("bookingId") long bookingId);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(
-            Long bookerId, LocalDateTime now1, LocalDateTime now2, Sort sort
-    );
+    // условие на текущий статус защищает от параллельного решения по той же брони
+    @Modifying(clearAutomatically = true)
+    @Query("update versioned Booking b set b.status = :status where b.id in :ids and b.status = :expected")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("expected") BookingStatus expected,
+                     @Param("status") BookingStatus status);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime now, Sort sort);
+    // брони пакета блокируются до конца транзакции в порядке id, чтобы встречные пакеты не взаимоблокировались
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id in :ids order by b.id")
+    List<Booking> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime now, Sort sort);
+    // выгрузка: строки читаются курсором порциями по fetch size, а не одним списком
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select b from Booking b join fetch b.item join fetch b.booker
+            where b.ownerId = :ownerId
+            order by b.start desc, b.id desc
+            """)
+    Stream<Booking> streamAllByOwnerId(@Param("ownerId") Long ownerId);
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerId(Long bookerId, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByItemOwnerId(Long ownerId, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(
+            Long bookerId, LocalDateTime now1, LocalDateTime now2, ScrollPosition position, Sort sort, Limit limit
+    );
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(
-            Long ownerId, LocalDateTime now1, LocalDateTime now2, Sort sort
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndEndBefore(
+            Long bookerId, LocalDateTime now, ScrollPosition position, Sort sort, Limit limit
     );
 
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime now, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStartAfter(
+            Long bookerId, LocalDateTime now, ScrollPosition position, Sort sort, Limit limit
+    );
 
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime now, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStatus(
+            Long bookerId, BookingStatus status, ScrollPosition position, Sort sort, Limit limit
+    );
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByOwnerId(Long ownerId, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByItemIdInAndStatusAndStartBeforeOrderByStartDesc(
-            List<Long> itemIds, BookingStatus status, LocalDateTime now
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByOwnerIdAndStartBeforeAndEndAfter(
+            Long ownerId, LocalDateTime now1, LocalDateTime now2, ScrollPosition position, Sort sort, Limit limit
     );
 
-    List<Booking> findAllByItemIdInAndStatusAndStartAfterOrderByStartAsc(
-            List<Long> itemIds, BookingStatus status, LocalDateTime now
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByOwnerIdAndEndBefore(
+            Long ownerId, LocalDateTime now, ScrollPosition position, Sort sort, Limit limit
     );
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByOwnerIdAndStartAfter(
+            Long ownerId, LocalDateTime now, ScrollPosition position, Sort sort, Limit limit
+    );
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByOwnerIdAndStatus(
+            Long ownerId, BookingStatus status, ScrollPosition position, Sort sort, Limit limit
+    );
+
+    // по одному последнему начавшемуся бронированию на вещь; индекс idx_bookings_item_status_start
+    @Query("""
+            select new ru.practicum.shareit.booking.dto.ItemBookingShortView(r.itemId, r.id, r.bookerId, r.startTime, r.endTime)
+            from (
+                select b.item.id as itemId, b.id as id, b.booker.id as bookerId,
+                       b.start as startTime, b.end as endTime,
+                       row_number() over (partition by b.item.id order by b.start desc, b.id desc) as rn
+                from Booking b
+                where b.item.id in :itemIds and b.status = :status and b.start < :now
+            ) r
+            where r.rn = 1
+            """)
+    List<ItemBookingShortView> findLastByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                 @Param("status") BookingStatus status,
+                                                 @Param("now") LocalDateTime now);
+
+    // по одному ближайшему будущему бронированию на вещь
+    @Query("""
+            select new ru.practicum.shareit.booking.dto.ItemBookingShortView(r.itemId, r.id, r.bookerId, r.startTime, r.endTime)
+            from (
+                select b.item.id as itemId, b.id as id, b.booker.id as bookerId,
+                       b.start as startTime, b.end as endTime,
+                       row_number() over (partition by b.item.id order by b.start asc, b.id asc) as rn
+                from Booking b
+                where b.item.id in :itemIds and b.status = :status and b.start > :now
+            ) r
+            where r.rn = 1
+            """)
+    List<ItemBookingShortView> findNextByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                 @Param("status") BookingStatus status,
+                                                 @Param("now") LocalDateTime now);
+
+    // полуинтервалы [start, end): смежные брони не пересекаются, как и в excl_booking_item_overlap
+    @Query("""
+            select count(b) > 0 from Booking b
+            where b.item.id = :itemId and b.status in :statuses
+              and b.start < :end and b.end > :start
+            """)
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("statuses") Collection<BookingStatus> statuses,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    Slice<Booking> findAllByStatusInAndEndAfter(Collection<BookingStatus> statuses, LocalDateTime now, Pageable pageable);
+
+    // по одному последнему закончившемуся бронированию на вещь
+    @Query("""
+            select new ru.practicum.shareit.booking.dto.ItemBookingShortView(r.itemId, r.id, r.bookerId, r.startTime, r.endTime)
+            from (
+                select b.item.id as itemId, b.id as id, b.booker.id as bookerId,
+                       b.start as startTime, b.end as endTime,
+                       row_number() over (partition by b.item.id order by b.start desc, b.id desc) as rn
+                from Booking b
+                where b.status = :status and b.end <= :now
+            ) r
+            where r.rn = 1
+            """)
+    List<ItemBookingShortView> findLastEndedByStatus(@Param("status") BookingStatus status,
+                                                     @Param("now") LocalDateTime now);
+
     boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(
             Long itemId, Long bookerId, BookingStatus status, LocalDateTime now
     );
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикуется {@link BookingServiceImpl} после создания брони или смены её статуса.
+ * Содержит снимок полей, чтобы слушатели не зависели от сессии Hibernate.
+ */
+public record BookingChangedEvent(long bookingId, long itemId, long bookerId,
+                                  LocalDateTime start, LocalDateTime end, BookingStatus status) {
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(
+                booking.getId(),
+                booking.getItem().getId(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus()
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Непрозрачный курсор keyset-пагинации по ключу (start_time, id).
+ * Клиент получает его в заголовке ответа и передаёт обратно как есть.
+ */
+record BookingCursor(LocalDateTime start, long id) {
+    private static final String SEPARATOR = "|";
+
+    static BookingCursor of(Booking booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    static BookingCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            return new BookingCursor(
+                    LocalDateTime.parse(raw.substring(0, idx)),
+                    Long.parseLong(raw.substring(idx + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + token);
+        }
+    }
+
+    String encode() {
+        String raw = start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ScrollPosition toPosition() {
+        return ScrollPosition.forward(Map.of("start", start, "id", id));
+    }
+}
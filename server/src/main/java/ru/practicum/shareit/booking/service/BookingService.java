@@ -1,20 +1,39 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto create(Long userId, BookingCreateRequestDto dto);
 
     BookingDto approve(Long ownerId, Long bookingId, boolean approved);
 
+    /**
+     * Подтверждает или отклоняет сразу несколько броней владельца; ошибка по одной брони
+     * не отменяет остальные и возвращается в её {@link BookingDecisionDto}.
+     */
+    List<BookingDecisionDto> approveAll(Long ownerId, List<Long> bookingIds, boolean approved);
+
     BookingDto getById(Long userId, Long bookingId);
 
-    List<BookingDto> getByBooker(Long userId, String state);
+    /**
+     * ETag бронирования для условного GET; проверяет доступ так же, как {@link #getById}.
+     */
+    String getETag(Long userId, Long bookingId);
+
+    BookingPage getByBooker(Long userId, String state, int from, int size, String cursor);
+
+    BookingPage getByOwner(Long ownerId, String state, int from, int size, String cursor);
 
-    List<BookingDto> getByOwner(Long ownerId, String state);
+    /**
+     * Передаёт в {@code sink} все брони вещей владельца, от новых к старым, не собирая их в список.
+     */
+    void exportByOwner(Long ownerId, Consumer<BookingDto> sink);
 
     BookingDto cancel(Long userId, Long bookingId);
 }
@@ -1,12 +1,27 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.availability.ItemAvailability;
+import ru.practicum.shareit.booking.dto.BookingBatchApproveDto;
 import ru.practicum.shareit.booking.dto.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -14,29 +29,49 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceGuard userExistenceGuard;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ItemAvailability itemAvailability;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private static final Sort SORT_NEW_TO_OLD = Sort.by(Sort.Direction.DESC, "start");
+    private static final Sort SORT_NEW_TO_OLD = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final String OVERLAP_CONSTRAINT = "excl_booking_item_overlap";
+    private static final int ITEM_LOCK_STRIPES = 256;
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
+    private final StripedLocks itemLocks = new StripedLocks(ITEM_LOCK_STRIPES);
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional
     public BookingDto create(Long userId, BookingCreateRequestDto dto) {
-        User booker = userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + userId + " не найден"));
+        User booker = userExistenceGuard.requireUser(userId);
 
         Item item = itemRepository.findById(dto.getItemId())
                 .orElseThrow(() -> new NoSuchElementException("Вещь с id = " + dto.getItemId() + " не найдена"));
@@ -51,15 +86,31 @@ public class BookingServiceImpl implements BookingService {
 
         validateDates(dto.getStart(), dto.getEnd());
 
+        lockItemUntilCompletion(item.getId());
+        if (!itemAvailability.isFree(item.getId(), dto.getStart(), dto.getEnd())) {
+            throw new IllegalArgumentException("Вещь уже забронирована на эти даты");
+        }
+
         Booking booking = Booking.builder()
                 .item(item)
+                .ownerId(item.getOwner().getId())
                 .booker(booker)
                 .start(dto.getStart())
                 .end(dto.getEnd())
                 .status(BookingStatus.WAITING)
                 .build();
 
-        return bookingMapper.toDto(bookingRepository.save(booking));
+        try {
+            Booking saved = bookingRepository.saveAndFlush(booking);
+            eventPublisher.publishEvent(BookingChangedEvent.of(saved));
+            return bookingMapper.toDto(saved);
+        } catch (DataIntegrityViolationException e) {
+            // на PostgreSQL пересечение с бронью другого экземпляра сервиса ловит ограничение
+            if (String.valueOf(e.getMostSpecificCause().getMessage()).contains(OVERLAP_CONSTRAINT)) {
+                throw new IllegalArgumentException("Вещь уже забронирована на эти даты");
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -68,7 +119,7 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NoSuchElementException("Бронирование с id = " + bookingId + " не найдено"));
 
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+        if (!booking.getOwnerId().equals(ownerId)) {
             throw new AccessDeniedException("Подтвердить/отклонить может только владелец вещи");
         }
 
@@ -77,7 +128,60 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return bookingMapper.toDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(saved));
+        return bookingMapper.toDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionDto> approveAll(Long ownerId, List<Long> bookingIds, boolean approved) {
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new IllegalArgumentException("Список бронирований пуст");
+        }
+        if (bookingIds.size() > BookingBatchApproveDto.MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "За один запрос можно решить не более " + BookingBatchApproveDto.MAX_SIZE + " бронирований");
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        // под блокировкой прочитанные статусы не меняются до коммита: UPDATE изменит ровно ожидающие брони
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, BookingDecisionDto> results = new LinkedHashMap<>();
+        List<Booking> waiting = new ArrayList<>();
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            if (booking == null) {
+                results.put(id, BookingDecisionDto.failed(id, "Бронирование с id = " + id + " не найдено"));
+            } else if (!booking.getOwnerId().equals(ownerId)) {
+                results.put(id, BookingDecisionDto.failed(id, "Подтвердить/отклонить может только владелец вещи"));
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                results.put(id, BookingDecisionDto.failed(id, "Решение уже принято"));
+            } else {
+                results.put(id, null);
+                waiting.add(booking);
+            }
+        }
+
+        if (!waiting.isEmpty()) {
+            BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            List<Long> waitingIds = waiting.stream().map(Booking::getId).toList();
+            int updated = bookingRepository.updateStatus(waitingIds, BookingStatus.WAITING, status);
+            if (updated != waitingIds.size()) {
+                throw new IllegalStateException("Изменено " + updated + " бронирований из " + waitingIds.size()
+                        + " заблокированных");
+            }
+
+            for (Booking booking : waiting) {
+                booking.setStatus(status);
+                eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+                results.put(booking.getId(), BookingDecisionDto.decided(booking.getId(), status));
+            }
+        }
+
+        return List.copyOf(results.values());
     }
 
     @Override
@@ -103,20 +207,21 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(BookingStatus.CANCELED);
-        return bookingMapper.toDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(saved));
+        return bookingMapper.toDto(saved);
     }
 
 
     @Override
     public BookingDto getById(Long userId, Long bookingId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + userId + " не найден"));
+        userExistenceGuard.requireExists(userId);
 
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NoSuchElementException("Бронирование с id = " + bookingId + " не найдено"));
 
         boolean isBooker = booking.getBooker().getId().equals(userId);
-        boolean isOwner = booking.getItem().getOwner().getId().equals(userId);
+        boolean isOwner = booking.getOwnerId().equals(userId);
 
         if (!isBooker && !isOwner) {
             throw new AccessDeniedException("Нет доступа к бронированию");
@@ -126,51 +231,126 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getByBooker(Long userId, String state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + userId + " не найден"));
+    public String getETag(Long userId, Long bookingId) {
+        userExistenceGuard.requireExists(userId);
+
+        BookingVersionView version = bookingRepository.findVersionById(bookingId)
+                .orElseThrow(() -> new NoSuchElementException("Бронирование с id = " + bookingId + " не найдено"));
+
+        if (!version.bookerId().equals(userId) && !version.ownerId().equals(userId)) {
+            throw new AccessDeniedException("Нет доступа к бронированию");
+        }
+
+        return version.etag(bookingId);
+    }
+
+    @Override
+    public BookingPage getByBooker(Long userId, String state, int from, int size, String cursor) {
+        userExistenceGuard.requireExists(userId);
 
         BookingState st = BookingState.from(state);
         LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = switch (st) {
-            case ALL -> bookingRepository.findAllByBookerId(userId, SORT_NEW_TO_OLD);
-            case CURRENT ->
-                    bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(userId, now, now, SORT_NEW_TO_OLD);
-            case PAST -> bookingRepository.findAllByBookerIdAndEndBefore(userId, now, SORT_NEW_TO_OLD);
-            case FUTURE -> bookingRepository.findAllByBookerIdAndStartAfter(userId, now, SORT_NEW_TO_OLD);
-            case WAITING ->
-                    bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatus.WAITING, SORT_NEW_TO_OLD);
-            case REJECTED ->
-                    bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatus.REJECTED, SORT_NEW_TO_OLD);
+        ScrollPosition position = toPosition(from, size, cursor);
+        Limit limit = Limit.of(size);
+
+        Window<Booking> bookings = switch (st) {
+            case ALL -> bookingRepository.findAllByBookerId(userId, position, SORT_NEW_TO_OLD, limit);
+            case CURRENT -> bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(
+                    userId, now, now, position, SORT_NEW_TO_OLD, limit);
+            case PAST -> bookingRepository.findAllByBookerIdAndEndBefore(
+                    userId, now, position, SORT_NEW_TO_OLD, limit);
+            case FUTURE -> bookingRepository.findAllByBookerIdAndStartAfter(
+                    userId, now, position, SORT_NEW_TO_OLD, limit);
+            case WAITING -> bookingRepository.findAllByBookerIdAndStatus(
+                    userId, BookingStatus.WAITING, position, SORT_NEW_TO_OLD, limit);
+            case REJECTED -> bookingRepository.findAllByBookerIdAndStatus(
+                    userId, BookingStatus.REJECTED, position, SORT_NEW_TO_OLD, limit);
         };
 
-        return bookings.stream().map(bookingMapper::toDto).toList();
+        return toPage(bookings);
     }
 
     @Override
-    public List<BookingDto> getByOwner(Long ownerId, String state) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + ownerId + " не найден"));
+    public BookingPage getByOwner(Long ownerId, String state, int from, int size, String cursor) {
+        userExistenceGuard.requireExists(ownerId);
 
         BookingState st = BookingState.from(state);
         LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = switch (st) {
-            case ALL -> bookingRepository.findAllByItemOwnerId(ownerId, SORT_NEW_TO_OLD);
-            case CURRENT ->
-                    bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(ownerId, now, now, SORT_NEW_TO_OLD);
-            case PAST -> bookingRepository.findAllByItemOwnerIdAndEndBefore(ownerId, now, SORT_NEW_TO_OLD);
-            case FUTURE -> bookingRepository.findAllByItemOwnerIdAndStartAfter(ownerId, now, SORT_NEW_TO_OLD);
-            case WAITING ->
-                    bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, BookingStatus.WAITING, SORT_NEW_TO_OLD);
-            case REJECTED ->
-                    bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, SORT_NEW_TO_OLD);
+        ScrollPosition position = toPosition(from, size, cursor);
+        Limit limit = Limit.of(size);
+
+        Window<Booking> bookings = switch (st) {
+            case ALL -> bookingRepository.findAllByOwnerId(ownerId, position, SORT_NEW_TO_OLD, limit);
+            case CURRENT -> bookingRepository.findAllByOwnerIdAndStartBeforeAndEndAfter(
+                    ownerId, now, now, position, SORT_NEW_TO_OLD, limit);
+            case PAST -> bookingRepository.findAllByOwnerIdAndEndBefore(
+                    ownerId, now, position, SORT_NEW_TO_OLD, limit);
+            case FUTURE -> bookingRepository.findAllByOwnerIdAndStartAfter(
+                    ownerId, now, position, SORT_NEW_TO_OLD, limit);
+            case WAITING -> bookingRepository.findAllByOwnerIdAndStatus(
+                    ownerId, BookingStatus.WAITING, position, SORT_NEW_TO_OLD, limit);
+            case REJECTED -> bookingRepository.findAllByOwnerIdAndStatus(
+                    ownerId, BookingStatus.REJECTED, position, SORT_NEW_TO_OLD, limit);
         };
 
-        return bookings.stream().map(bookingMapper::toDto).toList();
+        return toPage(bookings);
+    }
+
+    @Override
+    public void exportByOwner(Long ownerId, Consumer<BookingDto> sink) {
+        userExistenceGuard.requireExists(ownerId);
+
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(ownerId)) {
+            int[] read = {0};
+            bookings.forEach(booking -> {
+                sink.accept(bookingMapper.toDto(booking));
+                // прочитанные сущности больше не нужны: контекст не должен расти вместе с выгрузкой
+                if (++read[0] % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
+
+    /**
+     * Сериализует создание броней одной вещи в пределах экземпляра. Блокировка держится
+     * до конца транзакции: иначе конкурент проверит пересечения до коммита нашей вставки.
+     */
+    private void lockItemUntilCompletion(long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи требует активной транзакции");
+        }
+        Lock lock = itemLocks.forKey(itemId);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    // курсор имеет приоритет над from: с ним страница N стоит столько же, сколько первая
+    private ScrollPosition toPosition(int from, int size, String cursor) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            return BookingCursor.decode(cursor).toPosition();
+        }
+        if (from < 0) {
+            throw new IllegalArgumentException("Параметр from не может быть отрицательным");
+        }
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
     }
 
+    private BookingPage toPage(Window<Booking> window) {
+        List<BookingDto> dtos = window.stream().map(bookingMapper::toDto).toList();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? BookingCursor.of(window.getContent().get(window.size() - 1)).encode()
+                : null;
+        return new BookingPage(dtos, nextCursor);
+    }
 
     private void validateDates(LocalDateTime start, LocalDateTime end) {
         if (start == null || end == null) {
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Фиксированный набор блокировок, между которыми распределяются ключи.
+ * Разные ключи могут попасть на одну блокировку, но один ключ всегда попадает на одну и ту же,
+ * поэтому операции над разными вещами почти никогда не ждут друг друга.
+ */
+final class StripedLocks {
+    private final Lock[] stripes;
+
+    StripedLocks(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Число блокировок должно быть степенью двойки: " + stripes);
+        }
+        this.stripes = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    Lock forKey(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Пишет объекты в ответ по одному на строку ({@code application/x-ndjson}). Отправку кусками
+ * делает сервлет-контейнер по заполнении своего буфера, так что в памяти не копится вся выгрузка.
+ * <p>
+ * Тип ответа выставляется при первой записи: если сервис упадёт до неё, ошибку оформит
+ * {@link ru.practicum.shareit.exception.ErrorHandler} обычным JSON.
+ */
+public class NdjsonWriter<T> implements Consumer<T> {
+    private final ObjectMapper objectMapper;
+    private final HttpServletResponse response;
+    private boolean started;
+
+    public NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        this.response = response;
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            start();
+            response.getOutputStream().write(objectMapper.writeValueAsBytes(value));
+            response.getOutputStream().write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Завершает выгрузку; пустая выгрузка — пустой ответ того же типа.
+     */
+    public void finish() throws IOException {
+        start();
+        response.flushBuffer();
+    }
+
+    private void start() {
+        if (!started) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            started = true;
+        }
+    }
+}
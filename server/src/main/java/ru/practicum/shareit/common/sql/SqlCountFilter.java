@@ -0,0 +1,87 @@
+package ru.practicum.shareit.common.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Считает SQL-запросы одного HTTP-запроса. С {@code shareit.sql.response-headers=true} отдаёт
+ * их число и время в заголовках {@code X-SQL-Count} и {@code X-SQL-Time} (мс).
+ * <p>
+ * Заголовки ставятся перед первой записью тела: к этому моменту сервис уже отработал, а ответ
+ * ещё не отправлен, и тело не приходится буферизовать. Запросы, выполненные после начала записи
+ * (потоковые выгрузки), в заголовки не попадают.
+ */
+@Slf4j
+class SqlCountFilter extends OncePerRequestFilter {
+    static final String COUNT_HEADER = "X-SQL-Count";
+    static final String TIME_HEADER = "X-SQL-Time";
+
+    private final boolean responseHeaders;
+
+    SqlCountFilter(SqlMonitorProperties properties) {
+        this.responseHeaders = properties.responseHeaders();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            if (responseHeaders) {
+                SqlHeadersResponse withHeaders = new SqlHeadersResponse(response, sql);
+                chain.doFilter(request, withHeaders);
+                // ответ без тела
+                withHeaders.writeHeaders();
+            } else {
+                chain.doFilter(request, response);
+            }
+            log.debug("{} {}: {} SQL statements, {} ms", request.getMethod(), request.getRequestURI(),
+                    sql.statements(), sql.elapsedMillis());
+        }
+    }
+
+    private static final class SqlHeadersResponse extends HttpServletResponseWrapper {
+        private final SqlStatementCounter.Scope sql;
+        private boolean written;
+
+        SqlHeadersResponse(HttpServletResponse response, SqlStatementCounter.Scope sql) {
+            super(response);
+            this.sql = sql;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(COUNT_HEADER, String.valueOf(sql.statements()));
+            setHeader(TIME_HEADER, String.valueOf(sql.elapsedMillis()));
+        }
+    }
+}
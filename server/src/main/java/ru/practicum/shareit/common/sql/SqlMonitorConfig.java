@@ -0,0 +1,58 @@
+package ru.practicum.shareit.common.sql;
+
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+
+/**
+ * Учёт SQL-запросов: источник данных оборачивается datasource-proxy, каждое выполнение
+ * проходит через {@link SqlMonitorListener}, а {@link SqlCountFilter} собирает их по HTTP-запросам.
+ * Тот же прокси даёт наблюдения {@code jdbc.connection}, {@code jdbc.query} и {@code jdbc.result-set}:
+ * спаны трассы под спаном сервиса, по которым видно время базы и время Hibernate между запросами.
+ */
+@Configuration
+public class SqlMonitorConfig {
+
+    /**
+     * Статический, чтобы постпроцессор регистрировался раньше источника данных;
+     * настройки и реестр наблюдений берутся лениво, когда источник данных уже создаётся.
+     */
+    @Bean
+    public static BeanPostProcessor sqlMonitorDataSourceProxy(ObjectProvider<SqlMonitorProperties> properties,
+                                                              ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    DataSourceObservationListener observations = new DataSourceObservationListener(
+                            SingletonSupplier.of(() -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)));
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SqlMonitorListener(properties.getObject()))
+                            .listener(observations)
+                            .methodListener(observations)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlCountFilter> sqlCountFilter(SqlMonitorProperties properties) {
+        FilterRegistrationBean<SqlCountFilter> registration =
+                new FilterRegistrationBean<>(new SqlCountFilter(properties));
+        // снаружи ShallowEtagHeaderFilter: тот отдаёт тело уже после всех запросов
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
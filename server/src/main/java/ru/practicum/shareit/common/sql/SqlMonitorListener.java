@@ -0,0 +1,36 @@
+package ru.practicum.shareit.common.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+
+import java.util.List;
+
+/**
+ * Учитывает каждое выполнение в {@link SqlStatementCounter} и пишет в лог медленные запросы
+ * с параметрами: по ним запрос можно повторить в {@code EXPLAIN ANALYZE}.
+ */
+@Slf4j
+class SqlMonitorListener implements QueryExecutionListener {
+    private final long slowQueryMillis;
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    SqlMonitorListener(SqlMonitorProperties properties) {
+        this.slowQueryMillis = properties.slowQueryThreshold().toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementCounter.record(queryInfoList.size(), execInfo.getElapsedTime());
+        if (execInfo.getElapsedTime() >= slowQueryMillis) {
+            log.warn("Slow SQL ({} ms): {}", execInfo.getElapsedTime(),
+                    logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false, false));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.common.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param slowQueryThreshold запросы не быстрее порога пишутся в лог вместе с параметрами
+ * @param responseHeaders    добавлять к ответам {@code X-SQL-Count} и {@code X-SQL-Time} (не для production)
+ */
+@ConfigurationProperties(prefix = "shareit.sql")
+public record SqlMonitorProperties(
+        @DefaultValue("500ms") Duration slowQueryThreshold,
+        @DefaultValue("false") boolean responseHeaders
+) {
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.common.sql;
+
+/**
+ * Счётчик SQL-запросов текущего потока. Запросы, выполненные внутри открытой области,
+ * учитываются в ней и во всех внешних областях того же потока.
+ * <p>
+ * Области открывает {@link SqlCountFilter} на каждый HTTP-запрос; тесты открывают свои,
+ * чтобы ограничить число запросов сценария:
+ * <pre>{@code
+ * try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+ *     itemService.getAll(ownerId);
+ *     assertThat(sql.statements()).isLessThanOrEqualTo(4);
+ * }
+ * }</pre>
+ */
+public final class SqlStatementCounter {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(int statements, long elapsedMillis) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.add(statements, elapsedMillis);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope outer;
+        private int statements;
+        private long elapsedMillis;
+
+        private Scope(Scope outer) {
+            this.outer = outer;
+        }
+
+        /**
+         * Число выполненных SQL-выражений; пакет одного выражения считается одним выполнением.
+         */
+        public int statements() {
+            return statements;
+        }
+
+        /**
+         * Суммарное время выполнения запросов в базе, мс.
+         */
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+
+        private void add(int statements, long elapsedMillis) {
+            for (Scope scope = this; scope != null; scope = scope.outer) {
+                scope.statements += statements;
+                scope.elapsedMillis += elapsedMillis;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+}
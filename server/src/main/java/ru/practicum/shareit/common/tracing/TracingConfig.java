@@ -0,0 +1,56 @@
+package ru.practicum.shareit.common.tracing;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Экспорт спанов без внешнего коллектора: OpenTelemetry пишет их как OTLP JSON, и файл можно
+ * загрузить в Jaeger или Tempo через {@code otlpjsonfile} receiver OpenTelemetry Collector.
+ * <p>
+ * Спаны входящих запросов и вызовов сервисов создают наблюдения Spring и {@code @Observed},
+ * спаны JDBC — {@link ru.practicum.shareit.common.sql.SqlMonitorConfig}. Контекст трассы
+ * приходит от gateway в заголовке W3C {@code traceparent}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter otlpJsonSpanExporter(TracingProperties properties) throws IOException {
+        SpanExporter exporter = OtlpJsonLoggingSpanExporter.create();
+        if (properties.file() != null) {
+            writeTo(properties.file());
+        }
+        return exporter;
+    }
+
+    /**
+     * Экспортёр пишет в свой логгер java.util.logging: перенаправляем его в файл с одной строкой
+     * JSON на запись и отключаем от лога приложения.
+     */
+    private static void writeTo(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        FileHandler handler = new FileHandler(file.toString(), true);
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord record) {
+                return record.getMessage() + System.lineSeparator();
+            }
+        });
+        Logger logger = Logger.getLogger(OtlpJsonLoggingSpanExporter.class.getName());
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.common.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * @param file файл для спанов в формате OTLP JSON, по строке на пакет; если не задан,
+ *             спаны пишутся в лог приложения
+ */
+@ConfigurationProperties(prefix = "shareit.tracing")
+public record TracingProperties(Path file) {
+}
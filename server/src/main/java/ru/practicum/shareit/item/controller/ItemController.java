@@ -1,12 +1,21 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import ru.practicum.shareit.common.NdjsonWriter;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -18,6 +27,8 @@ import java.util.List;
 public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto add(@RequestHeader(USER_ID_HEADER) Long ownerId,
@@ -25,6 +36,15 @@ public class ItemController {
         return itemService.add(ownerId, itemDto);
     }
 
+    /**
+     * Тело — JSON-массив вещей или NDJSON; читается из потока запроса, не целиком.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                           HttpServletRequest request) throws IOException {
+        return itemImportService.importItems(ownerId, request.getInputStream());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(USER_ID_HEADER) Long ownerId,
                           @PathVariable Long itemId,
@@ -43,6 +63,20 @@ public class ItemController {
         return itemService.getAll(ownerId);
     }
 
+    /**
+     * Все вещи владельца построчно, по мере чтения курсора. ETag-фильтр для выгрузки отключён:
+     * ему пришлось бы держать в памяти весь ответ.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportAll(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        NdjsonWriter<ItemDto> writer = new NdjsonWriter<>(objectMapper, response);
+        itemService.exportAll(ownerId, writer);
+        writer.finish();
+    }
+
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam(required = false) String text) {
         return itemService.search(text);
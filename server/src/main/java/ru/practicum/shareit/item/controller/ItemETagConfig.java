@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.controller;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag для ответов {@code /items}. Карточка вещи зависит от комментариев и от текущего времени
+ * (последнее и следующее бронирование), поэтому версии строки недостаточно: ETag считается
+ * по телу ответа. DTO при этом собирается, но клиент с актуальной копией получает 304 без тела.
+ */
+@Configuration
+public class ItemETagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> itemETagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*");
+        return registration;
+    }
+}
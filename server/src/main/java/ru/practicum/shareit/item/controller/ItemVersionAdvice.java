@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.item.service.ItemsVersion;
+
+/**
+ * Версия набора вещей ({@link ItemsVersion}) в заголовке {@link #HEADER} ответов {@link ItemController};
+ * по ней шлюз сбрасывает свой кэш поиска. Версия хранится в БД, поэтому одинакова на всех
+ * экземплярах сервера.
+ * <p>
+ * Ответ на чтение несёт версию, прочитанную до обработки запроса: если вещи изменились, пока
+ * шёл поиск, шлюз не сохранит устаревший результат под новой версией. Ответ на изменение несёт
+ * версию, прочитанную после коммита, то есть уже с этим изменением.
+ * <p>
+ * Срезы {@code @WebMvcTest} других контроллеров тоже создают этот совет, поэтому {@link ItemsVersion}
+ * берётся лениво.
+ */
+@ControllerAdvice(assignableTypes = ItemController.class)
+@RequiredArgsConstructor
+public class ItemVersionAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-Items-Version";
+
+    private static final String VERSION_ATTRIBUTE = ItemVersionAdvice.class.getName() + ".version";
+
+    private final ObjectProvider<ItemsVersion> itemsVersion;
+
+    @ModelAttribute
+    public void readVersionBeforeHandler(HttpServletRequest request) {
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            request.setAttribute(VERSION_ATTRIBUTE, itemsVersion.getObject().current());
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Object version = request instanceof ServletServerHttpRequest servletRequest
+                ? servletRequest.getServletRequest().getAttribute(VERSION_ATTRIBUTE)
+                : null;
+        response.getHeaders().set(HEADER, String.valueOf(version != null ? version : itemsVersion.getObject().current()));
+        return body;
+    }
+}
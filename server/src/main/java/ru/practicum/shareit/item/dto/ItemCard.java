@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Карточка вещи, собранная одним запросом.
+ *
+ * @param viewerExists существует ли пользователь, запросивший карточку
+ * @param item         вещь с последним/следующим бронированием (только для владельца) и последними комментариями
+ */
+public record ItemCard(boolean viewerExists, ItemDto item) {
+}
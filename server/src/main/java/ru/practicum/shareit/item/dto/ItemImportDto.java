@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Строка массового импорта вещей. Ограничения повторяют колонки таблицы items,
+ * чтобы некорректная строка отклонялась до вставки, а не ошибкой БД.
+ */
+@Data
+public class ItemImportDto {
+    @NotBlank(message = "Название не может быть пустым")
+    @Size(max = 255, message = "Название длиннее {max} символов")
+    private String name;
+
+    @NotBlank(message = "Описание не может быть пустым")
+    @Size(max = 1024, message = "Описание длиннее {max} символов")
+    private String description;
+
+    @NotNull(message = "Не указана доступность вещи")
+    private Boolean available;
+
+    private Long requestId;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог импорта: {@code errors} содержит не более первых
+ * {@link ru.practicum.shareit.item.service.ItemImportProperties#maxReportedErrors()} ошибок,
+ * полное число отклонённых строк — в {@code failed}.
+ */
+@Data
+public class ItemImportResultDto {
+    private long imported;
+    private long failed;
+    private List<ItemImportErrorDto> errors = new ArrayList<>();
+}
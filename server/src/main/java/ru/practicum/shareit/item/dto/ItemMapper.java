@@ -10,5 +10,12 @@ public interface ItemMapper {
     ItemDto toDto(Item item);
 
     @Mapping(target = "request", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Item toModel(ItemDto itemDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "request", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Item toModel(ItemImportDto itemImportDto);
 }
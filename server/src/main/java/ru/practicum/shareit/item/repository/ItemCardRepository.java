@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.dto.ItemCard;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ItemCardRepository {
+    /**
+     * Вещь, её последнее и следующее подтверждённые бронирования (если {@code viewerId} — владелец)
+     * и не более {@code commentLimit} последних комментариев за один SQL-запрос.
+     *
+     * @return пусто, если вещь не найдена
+     */
+    Optional<ItemCard> findCard(long itemId, long viewerId, LocalDateTime now, int commentLimit);
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCard;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class ItemCardRepositoryImpl implements ItemCardRepository {
+    // строка на каждый комментарий (или одна строка без комментариев);
+    // бронирования присоединяются только когда смотрит владелец
+    private static final String CARD_SQL = """
+            select i.id as item_id, i.name as item_name, i.description as item_description,
+                   i.available as item_available, i.request_id as item_request_id,
+                   case when exists (select 1 from users u where u.id = :viewerId) then 1 else 0 end as viewer_exists,
+                   lb.id as last_id, lb.booker_id as last_booker_id, lb.start_time as last_start, lb.end_time as last_end,
+                   nb.id as next_id, nb.booker_id as next_booker_id, nb.start_time as next_start, nb.end_time as next_end,
+                   c.id as comment_id, c.text as comment_text, c.created as comment_created, a.name as comment_author
+            from items i
+            left join (
+                select b.id, b.booker_id, b.start_time, b.end_time,
+                       row_number() over (order by b.start_time desc, b.id desc) as rn
+                from bookings b
+                where b.item_id = :itemId and b.status = :status and b.start_time < :now
+            ) lb on lb.rn = 1 and i.owner_id = :viewerId
+            left join (
+                select b.id, b.booker_id, b.start_time, b.end_time,
+                       row_number() over (order by b.start_time asc, b.id asc) as rn
+                from bookings b
+                where b.item_id = :itemId and b.status = :status and b.start_time > :now
+            ) nb on nb.rn = 1 and i.owner_id = :viewerId
+            left join (
+                select cm.id, cm.text, cm.created, cm.author_id,
+                       row_number() over (order by cm.created desc, cm.id desc) as rn
+                from comments cm
+                where cm.item_id = :itemId
+            ) c on c.rn <= :commentLimit
+            left join users a on a.id = c.author_id
+            where i.id = :itemId
+            order by c.rn
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<ItemCard> findCard(long itemId, long viewerId, LocalDateTime now, int commentLimit) {
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = entityManager.createNativeQuery(CARD_SQL, Tuple.class)
+                .setParameter("itemId", itemId)
+                .setParameter("viewerId", viewerId)
+                .setParameter("status", BookingStatus.APPROVED.name())
+                .setParameter("now", now)
+                .setParameter("commentLimit", commentLimit)
+                .getResultList();
+
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Tuple first = rows.get(0);
+        ItemDto dto = new ItemDto();
+        dto.setId(toLong(first.get("item_id")));
+        dto.setName((String) first.get("item_name"));
+        dto.setDescription((String) first.get("item_description"));
+        dto.setAvailable((Boolean) first.get("item_available"));
+        dto.setRequestId(toLong(first.get("item_request_id")));
+        dto.setLastBooking(toBooking(first, "last_"));
+        dto.setNextBooking(toBooking(first, "next_"));
+
+        List<CommentDto> comments = new ArrayList<>();
+        for (Tuple row : rows) {
+            if (row.get("comment_id") == null) {
+                continue;
+            }
+            CommentDto comment = new CommentDto();
+            comment.setId(toLong(row.get("comment_id")));
+            comment.setText((String) row.get("comment_text"));
+            comment.setAuthorName((String) row.get("comment_author"));
+            comment.setCreated(toLocalDateTime(row.get("comment_created")));
+            comments.add(comment);
+        }
+        dto.setComments(comments);
+
+        return Optional.of(new ItemCard(toLong(first.get("viewer_exists")) == 1L, dto));
+    }
+
+    private static BookingShortDto toBooking(Tuple row, String prefix) {
+        if (row.get(prefix + "id") == null) {
+            return null;
+        }
+        BookingShortDto booking = new BookingShortDto();
+        booking.setId(toLong(row.get(prefix + "id")));
+        booking.setBookerId(toLong(row.get(prefix + "booker_id")));
+        booking.setStart(toLocalDateTime(row.get(prefix + "start")));
+        booking.setEnd(toLocalDateTime(row.get(prefix + "end")));
+        return booking;
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -1,27 +1,55 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemCardRepository {
     List<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId);
 
+    // выгрузка: строки читаются курсором порциями по fetch size, а не одним списком
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select i from Item i where i.owner.id = :ownerId order by i.id")
+    Stream<Item> streamAllByOwnerId(@Param("ownerId") Long ownerId);
+
     List<Item> findAllByRequest_IdIn(Collection<Long> requestIds);
 
     List<Item> findAllByRequest_Id(Long requestId);
 
+    // постраничное чтение без count-запроса
+    Slice<Item> findAllBy(Pageable pageable);
+
+    // сначала совпадения по названию, затем по описанию
     @Query("""
             select i
             from Item i
             where i.available = true
               and (lower(i.name) like lower(concat('%', :text, '%'))
                 or lower(i.description) like lower(concat('%', :text, '%')))
-            order by i.id
+            order by case when lower(i.name) like lower(concat('%', :text, '%')) then 0 else 1 end, i.id
             """)
-    List<Item> searchAvailable(@Param("text") String text);
+    List<Item> searchAvailable(@Param("text") String text, Limit limit);
+
+    // только PostgreSQL: использует частичные GIN-индексы pg_trgm из schema-postgres.sql
+    @Query(value = """
+            select i.*
+            from items i
+            where i.available
+              and (i.name ilike concat('%', :text, '%')
+                or i.description ilike concat('%', :text, '%'))
+            order by greatest(similarity(i.name, :text), similarity(i.description, :text)) desc, i.id
+            limit :limit
+            """, nativeQuery = true)
+    List<Item> searchAvailableTrigram(@Param("text") String text, @Param("limit") int limit);
 }
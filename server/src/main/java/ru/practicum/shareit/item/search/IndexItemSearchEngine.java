@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+/**
+ * Поиск без обращения к БД по {@link ItemSearchIndex}. Индекс строится при старте
+ * и обновляется после коммита транзакций, изменивших вещь.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.search", name = "engine", havingValue = "index")
+public class IndexItemSearchEngine implements ItemSearchEngine {
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties properties;
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @PostConstruct
+    public void warmUp() {
+        PageRequest page = PageRequest.of(0, WARM_UP_PAGE_SIZE, Sort.by("id"));
+        Slice<Item> slice;
+        do {
+            slice = itemRepository.findAllBy(page);
+            slice.forEach(item -> index.index(toDocument(ItemChangedEvent.of(item))));
+            page = page.next();
+        } while (slice.hasNext());
+        log.info("Item search index built: {} items", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        index.index(toDocument(event));
+    }
+
+    @Override
+    public List<Item> searchAvailable(String text) {
+        return index.search(text, properties.maxResults()).stream()
+                .map(IndexItemSearchEngine::toItem)
+                .toList();
+    }
+
+    private static ItemSearchIndex.Document toDocument(ItemChangedEvent event) {
+        return new ItemSearchIndex.Document(
+                event.itemId(), event.name(), event.description(), event.available(), event.requestId());
+    }
+
+    private static Item toItem(ItemSearchIndex.Document document) {
+        return Item.builder()
+                .id(document.id())
+                .name(document.name())
+                .description(document.description())
+                .available(document.available())
+                .request(document.requestId() == null ? null : ItemRequest.builder().id(document.requestId()).build())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * Реализация выбирается свойством {@code shareit.search.engine}.
+ */
+public interface ItemSearchEngine {
+    /**
+     * @param text непустая строка поиска
+     * @return доступные вещи, отсортированные по релевантности,
+     * не более {@code shareit.search.max-results}
+     */
+    List<Item> searchAvailable(String text);
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания вещей.
+ * <p>
+ * Семантика совпадает с SQL-поиском: подстрока без учёта регистра в названии или описании,
+ * только доступные вещи. Кандидаты получаются пересечением списков id для триграмм запроса,
+ * начиная с самого короткого, так что работа зависит от частоты триграмм, а не от размера
+ * каталога; доступность проверяется последней, по снимку вещи. Затем кандидаты проверяются
+ * точным {@code contains}. Запросы короче трёх символов проверяются перебором доступных вещей.
+ */
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+    private final LongPostingList available = new LongPostingList();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Снимок полей вещи, нужных для поиска и построения ответа.
+     */
+    public record Document(long id, String name, String description, boolean available, Long requestId) {
+    }
+
+    private record Entry(Document document, String name, String description) {
+    }
+
+    public void index(Document document) {
+        String name = normalize(document.name());
+        String description = normalize(document.description());
+        long[] grams = trigrams(name, description);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.id());
+            entries.put(document.id(), new Entry(document, name, description));
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, g -> new LongPostingList()).add(document.id());
+            }
+            if (document.available()) {
+                available.add(document.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return доступные вещи, содержащие {@code text}: сначала совпадения по названию, внутри — по id
+     */
+    public List<Document> search(String text, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        long[] grams = query.length() >= GRAM ? trigrams(query, "") : new long[0];
+
+        lock.readLock().lock();
+        try {
+            long[] candidates = candidatesLocked(grams);
+            List<Document> byName = new ArrayList<>();
+            List<Document> byDescription = new ArrayList<>();
+            for (long id : candidates) {
+                Entry entry = entries.get(id);
+                if (entry.name().contains(query)) {
+                    byName.add(entry.document());
+                    if (byName.size() == limit) {
+                        break;
+                    }
+                } else if (byDescription.size() < limit && entry.description().contains(query)) {
+                    byDescription.add(entry.document());
+                }
+            }
+            byName.addAll(byDescription);
+            return byName.size() > limit ? List.copyOf(byName.subList(0, limit)) : byName;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidatesLocked(long[] grams) {
+        if (grams.length == 0) {
+            return available.toArray();
+        }
+        List<LongPostingList> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            LongPostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        // начинаем с самого короткого списка, чтобы промежуточный результат был минимальным
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+
+        long[] result = lists.get(0).toArray();
+        int length = result.length;
+        for (int i = 1; i < lists.size() && length > 0; i++) {
+            result = lists.get(i).intersect(result, length);
+            length = result.length;
+        }
+
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            if (entries.get(result[i]).document().available()) {
+                result[n++] = result[i];
+            }
+        }
+        return n == length ? result : Arrays.copyOf(result, n);
+    }
+
+    private void removeLocked(long id) {
+        Entry old = entries.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (long gram : trigrams(old.name(), old.description())) {
+            LongPostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        available.remove(id);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // триграмма упаковывается в long: три символа UTF-16 по 16 бит
+    private static long[] trigrams(String first, String second) {
+        long[] grams = new long[Math.max(0, first.length() - GRAM + 1) + Math.max(0, second.length() - GRAM + 1)];
+        int n = 0;
+        for (String s : new String[]{first, second}) {
+            for (int i = 0; i + GRAM <= s.length(); i++) {
+                grams[n++] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+            }
+        }
+        Arrays.sort(grams, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+}
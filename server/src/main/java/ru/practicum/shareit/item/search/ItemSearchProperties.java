@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param engine     движок поиска: {@code jpql} (переносимый, по умолчанию), {@code trigram} (PostgreSQL + pg_trgm)
+ *                   или {@code index} (инвертированный индекс в памяти)
+ * @param maxResults максимальное число вещей в ответе поиска
+ */
+@ConfigurationProperties(prefix = "shareit.search")
+public record ItemSearchProperties(
+        @DefaultValue("jpql") String engine,
+        @DefaultValue("100") int maxResults
+) {
+}
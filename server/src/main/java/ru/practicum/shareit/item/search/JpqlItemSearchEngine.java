@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Переносимый поиск через JPQL {@code like}: работает на любой БД (в том числе H2),
+ * но не использует индексы.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.search", name = "engine", havingValue = "jpql", matchIfMissing = true)
+public class JpqlItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties properties;
+
+    @Override
+    public List<Item> searchAvailable(String text) {
+        return itemRepository.searchAvailable(text, Limit.of(properties.maxResults()));
+    }
+}
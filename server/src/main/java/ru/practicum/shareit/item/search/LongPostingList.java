@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный по возрастанию список id без повторов на примитивном {@code long[]}.
+ * Не потокобезопасен: синхронизацию обеспечивает {@link ItemSearchIndex}.
+ */
+final class LongPostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(long id) {
+        // id новых вещей растут, поэтому почти всегда это дописывание в конец
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int idx = Arrays.binarySearch(ids, 0, size, id);
+        if (idx >= 0) {
+            return;
+        }
+        int insertAt = -idx - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int idx = Arrays.binarySearch(ids, 0, size, id);
+        if (idx < 0) {
+            return;
+        }
+        System.arraycopy(ids, idx + 1, ids, idx, size - idx - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Пересечение отсортированного массива с этим списком; результат тоже отсортирован.
+     * Если массив намного короче списка, его элементы ищутся двоичным поиском, а не слиянием,
+     * и длинный список целиком не просматривается.
+     */
+    long[] intersect(long[] sorted, int length) {
+        long[] result = new long[Math.min(length, size)];
+        int n = 0;
+        if ((long) length * Long.SIZE < size) {
+            int from = 0;
+            for (int i = 0; i < length && from < size; i++) {
+                int idx = Arrays.binarySearch(ids, from, size, sorted[i]);
+                if (idx >= 0) {
+                    result[n++] = sorted[i];
+                    from = idx + 1;
+                } else {
+                    from = -idx - 1;
+                }
+            }
+            return n == result.length ? result : Arrays.copyOf(result, n);
+        }
+        int i = 0;
+        int j = 0;
+        while (i < length && j < size) {
+            long a = sorted[i];
+            long b = ids[j];
+            if (a == b) {
+                result[n++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Поиск на PostgreSQL: {@code ilike} по частичным GIN-индексам pg_trgm
+ * (см. schema-postgres.sql) с ранжированием по триграммному сходству.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.search", name = "engine", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties properties;
+
+    @Override
+    public List<Item> searchAvailable(String text) {
+        return itemRepository.searchAvailableTrigram(text, properties.maxResults());
+    }
+}
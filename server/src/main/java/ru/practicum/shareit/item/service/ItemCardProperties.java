@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param commentLimit сколько последних комментариев показывать в карточке вещи
+ */
+@ConfigurationProperties(prefix = "shareit.item.card")
+public record ItemCardProperties(@DefaultValue("20") int commentLimit) {
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Публикуется {@link ItemServiceImpl} после создания или изменения вещи.
+ * Содержит снимок полей, чтобы слушатели не зависели от сессии Hibernate.
+ */
+public record ItemChangedEvent(long itemId, String name, String description, boolean available, Long requestId) {
+
+    public static ItemChangedEvent of(Item item) {
+        return new ItemChangedEvent(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()),
+                item.getRequest() == null ? null : item.getRequest().getId()
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param chunkSize         сколько строк импорта сохраняется в одной транзакции
+ * @param maxReportedErrors сколько ошибок по строкам возвращается в ответе
+ */
+@ConfigurationProperties(prefix = "shareit.item.import")
+public record ItemImportProperties(@DefaultValue("1000") int chunkSize,
+                                   @DefaultValue("1000") int maxReportedErrors) {
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemImportDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт вещей владельца из JSON-массива или NDJSON.
+ * <p>
+ * Вход читается потоково, по одному объекту: строки копятся пачками по {@code chunkSize} и каждая
+ * пачка сохраняется в своей транзакции, где Hibernate отправляет вставки JDBC-пакетами
+ * ({@code hibernate.jdbc.batch_size}). Для этого id вещей выдаёт пуловая последовательность
+ * {@code items_seq}: с IDENTITY Hibernate вынужден вставлять строки по одной.
+ * <p>
+ * Строка проверяется ограничениями {@link ItemImportDto}; некорректная строка пропускается и попадает
+ * в отчёт. Синтаксическая ошибка JSON прерывает чтение; уже сохранённые пачки остаются. Если пачку
+ * не удалось сохранить из-за ошибки БД, в отчёт попадает диапазон её строк, а импорт продолжается
+ * со следующей пачки.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImportService {
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserExistenceGuard userExistenceGuard;
+    private final ItemMapper itemMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemImportProperties properties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ItemImportResultDto importItems(Long ownerId, InputStream json) throws IOException {
+        userExistenceGuard.requireExists(ownerId);
+
+        ItemImportResultDto result = new ItemImportResultDto();
+        List<Row> chunk = new ArrayList<>(properties.chunkSize());
+        long rowNumber = 0;
+
+        try (MappingIterator<ItemImportDto> rows = objectMapper.readerFor(ItemImportDto.class).readValues(json)) {
+            while (true) {
+                rowNumber++;
+                ItemImportDto dto;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    dto = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    // значение не подошло по типу: объект пропущен целиком, читаем дальше
+                    reject(result, rowNumber, "Некорректная строка: " + e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    reject(result, rowNumber, "Некорректный JSON: " + e.getOriginalMessage());
+                    break;
+                }
+
+                String error = validate(dto);
+                if (error != null) {
+                    reject(result, rowNumber, error);
+                    continue;
+                }
+
+                chunk.add(new Row(rowNumber, dto));
+                if (chunk.size() >= properties.chunkSize()) {
+                    save(ownerId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            save(ownerId, chunk, result);
+        }
+
+        log.info("Item import for owner {}: {} imported, {} failed", ownerId, result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void save(Long ownerId, List<Row> chunk, ItemImportResultDto result) {
+        List<ItemImportErrorDto> rejected = new ArrayList<>();
+        int saved;
+        try {
+            saved = transactionTemplate.execute(status -> saveInTransaction(ownerId, chunk, rejected));
+        } catch (DataAccessException | TransactionException e) {
+            long first = chunk.get(0).number();
+            long last = chunk.get(chunk.size() - 1).number();
+            log.warn("Item import for owner {}: rows {}-{} not saved", ownerId, first, last, e);
+            result.setFailed(result.getFailed() + chunk.size());
+            report(result, new ItemImportErrorDto(first,
+                    "Строки " + first + "–" + last + " не сохранены из-за ошибки базы данных"));
+            return;
+        }
+        result.setImported(result.getImported() + saved);
+        rejected.forEach(error -> reject(result, error.getRow(), error.getError()));
+    }
+
+    private int saveInTransaction(Long ownerId, List<Row> chunk, List<ItemImportErrorDto> rejected) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        // импортированные вещи не должны вытеснять из региона items то, что сейчас читают
+        session.setCacheMode(CacheMode.GET);
+        try {
+            User owner = userExistenceGuard.requireUser(ownerId);
+            Set<Long> requestIds = existingRequestIds(chunk);
+
+            List<Item> items = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                Long requestId = row.dto().getRequestId();
+                if (requestId != null && !requestIds.contains(requestId)) {
+                    rejected.add(new ItemImportErrorDto(row.number(), "Запрос с id = " + requestId + " не найден"));
+                    continue;
+                }
+
+                Item item = itemMapper.toModel(row.dto());
+                item.setOwner(owner);
+                if (requestId != null) {
+                    item.setRequest(itemRequestRepository.getReferenceById(requestId));
+                }
+                items.add(item);
+            }
+
+            itemRepository.saveAll(items);
+            itemRepository.flush();
+            items.forEach(item -> eventPublisher.publishEvent(ItemChangedEvent.of(item)));
+            // при open-in-view контекст живёт весь запрос: без очистки он копит все вставленные вещи
+            entityManager.clear();
+            return items.size();
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+    }
+
+    private Set<Long> existingRequestIds(List<Row> chunk) {
+        List<Long> ids = chunk.stream()
+                .map(row -> row.dto().getRequestId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return ids.isEmpty() ? Set.of() : itemRequestRepository.findExistingIds(ids);
+    }
+
+    private String validate(ItemImportDto dto) {
+        if (dto == null) {
+            return "Пустая строка";
+        }
+        Set<ConstraintViolation<ItemImportDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void reject(ItemImportResultDto result, long row, String error) {
+        result.setFailed(result.getFailed() + 1);
+        report(result, new ItemImportErrorDto(row, error));
+    }
+
+    private void report(ItemImportResultDto result, ItemImportErrorDto error) {
+        if (result.getErrors().size() < properties.maxReportedErrors()) {
+            result.getErrors().add(error);
+        }
+    }
+
+    private record Row(long number, ItemImportDto dto) {
+    }
+}
@@ -5,6 +5,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto add(Long ownerId, ItemDto itemDto);
@@ -15,6 +16,11 @@ public interface ItemService {
 
     List<ItemDto> getAll(Long ownerId);
 
+    /**
+     * Передаёт в {@code sink} все вещи владельца без бронирований и комментариев, не собирая их в список.
+     */
+    void exportAll(Long ownerId, Consumer<ItemDto> sink);
+
     List<ItemDto> search(String text);
 
     CommentDto addComment(Long userId, Long itemId, CommentCreateDto dto);
@@ -1,14 +1,19 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailability;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.BookingShortMapper;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemCard;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -17,34 +22,46 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceGuard userExistenceGuard;
     private final BookingRepository bookingRepository;
+    private final ItemAvailability itemAvailability;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
     private final ItemMapper itemMapper;
     private final BookingShortMapper bookingShortMapper;
     private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemCardProperties itemCardProperties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
 
     @Override
     @Transactional
     public ItemDto add(Long ownerId, ItemDto itemDto) {
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + ownerId + " не найден"));
+        User owner = userExistenceGuard.requireUser(ownerId);
 
         Item item = itemMapper.toModel(itemDto);
         item.setOwner(owner);
@@ -56,6 +73,7 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item saved = itemRepository.save(item);
+        eventPublisher.publishEvent(ItemChangedEvent.of(saved));
 
         return itemMapper.toDto(saved);
     }
@@ -63,8 +81,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemDto update(Long ownerId, Long itemId, ItemDto itemDto) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + ownerId + " не найден"));
+        userExistenceGuard.requireExists(ownerId);
 
         Item updated = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NoSuchElementException("Вещь с id = " + itemId + " не найдена"));
@@ -84,14 +101,14 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item saved = itemRepository.save(updated);
+        eventPublisher.publishEvent(ItemChangedEvent.of(saved));
         return itemMapper.toDto(saved);
     }
 
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentCreateDto dto) {
-        User author = userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + userId + " не найден"));
+        User author = userExistenceGuard.requireUser(userId);
 
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NoSuchElementException("Вещь с id = " + itemId + " не найдена"));
@@ -116,42 +133,37 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDto getById(Long ownerId, Long itemId) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + ownerId + " не найден"));
+        Optional<ItemCard> card = itemRepository.findCard(
+                itemId, ownerId, LocalDateTime.now(), itemCardProperties.commentLimit());
 
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NoSuchElementException("Вещь с id = " + itemId + " не найдена"));
-
-        ItemDto dto = itemMapper.toDto(item);
-        dto.setComments(
-                commentRepository.findAllByItemIdOrderByCreatedDesc(itemId).stream()
-                        .map(commentMapper::toDto)
-                        .toList()
-        );
+        if (card.isEmpty()) {
+            userExistenceGuard.requireExists(ownerId);
+            throw new NoSuchElementException("Вещь с id = " + itemId + " не найдена");
+        }
+        if (!card.get().viewerExists()) {
+            throw new NoSuchElementException("Пользователь с id = " + ownerId + " не найден");
+        }
+        return card.get().item();
+    }
 
-        boolean isOwner = item.getOwner().getId().equals(ownerId);
-        if (isOwner) {
-            LocalDateTime now = LocalDateTime.now();
-
-            bookingRepository.findAllByItemIdInAndStatusAndStartBeforeOrderByStartDesc(
-                            List.of(itemId), BookingStatus.APPROVED, now
-                    ).stream()
-                    .findFirst()
-                    .ifPresent(b -> dto.setLastBooking(bookingShortMapper.toDto(b)));
-
-            bookingRepository.findAllByItemIdInAndStatusAndStartAfterOrderByStartAsc(
-                            List.of(itemId), BookingStatus.APPROVED, now
-                    ).stream()
-                    .findFirst()
-                    .ifPresent(b -> dto.setNextBooking(bookingShortMapper.toDto(b)));
+    @Override
+    public void exportAll(Long ownerId, Consumer<ItemDto> sink) {
+        userExistenceGuard.requireExists(ownerId);
+
+        try (Stream<Item> items = itemRepository.streamAllByOwnerId(ownerId)) {
+            int[] read = {0};
+            items.forEach(item -> {
+                sink.accept(itemMapper.toDto(item));
+                if (++read[0] % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            });
         }
-        return dto;
     }
 
     @Override
     public List<ItemDto> getAll(Long ownerId) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + ownerId + " не найден"));
+        userExistenceGuard.requireExists(ownerId);
 
         List<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(ownerId);
 
@@ -166,25 +178,13 @@ public class ItemServiceImpl implements ItemService {
         LocalDateTime now = LocalDateTime.now();
         if (!itemIds.isEmpty()) {
 
-            // LAST bookings (прошлые, самые поздние)
-            List<Booking> last = bookingRepository
-                    .findAllByItemIdInAndStatusAndStartBeforeOrderByStartDesc(
-                            itemIds, BookingStatus.APPROVED, now);
-
-            for (Booking booking : last) {
-                Long itemId = booking.getItem().getId();
-                lastBookings.putIfAbsent(itemId, bookingShortMapper.toDto(booking));
-            }
-
-            // NEXT bookings (будущие, самые ранние)
-            List<Booking> next = bookingRepository
-                    .findAllByItemIdInAndStatusAndStartAfterOrderByStartAsc(
-                            itemIds, BookingStatus.APPROVED, now);
+            // LAST bookings (прошлые, самые поздние) — ровно одно на вещь
+            itemAvailability.findLastApproved(itemIds, now)
+                    .forEach(b -> lastBookings.put(b.itemId(), bookingShortMapper.toDto(b)));
 
-            for (Booking booking : next) {
-                Long itemId = booking.getItem().getId();
-                nextBookings.putIfAbsent(itemId, bookingShortMapper.toDto(booking));
-            }
+            // NEXT bookings (будущие, самые ранние) — ровно одно на вещь
+            itemAvailability.findNextApproved(itemIds, now)
+                    .forEach(b -> nextBookings.put(b.itemId(), bookingShortMapper.toDto(b)));
 
             commentRepository.findAllByItemIdIn(itemIds).forEach(c -> {
                 Long id = c.getItem().getId();
@@ -211,7 +211,7 @@ public class ItemServiceImpl implements ItemService {
             return List.of();
         }
 
-        return itemRepository.searchAvailable(text).stream()
+        return itemSearchEngine.searchAvailable(text).stream()
                 .map(itemMapper::toDto)
                 .collect(Collectors.toList());
     }
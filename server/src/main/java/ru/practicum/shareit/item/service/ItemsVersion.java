@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Версия набора вещей, общая для всех экземпляров сервера: счётчик в таблице {@code items_version}.
+ * Счётчик увеличивается в той же транзакции, что создаёт или меняет вещи, поэтому новую версию
+ * читатель видит только вместе с закоммиченными изменениями, на каком бы экземпляре они ни прошли.
+ * <p>
+ * Счётчик обновляется через JDBC, а не запросом Hibernate: нативный update без указанных таблиц
+ * сбросил бы весь кэш второго уровня.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemsVersion {
+    private static final String SELECT_SQL = "select version from items_version where id = 1";
+    private static final String INCREMENT_SQL = "update items_version set version = version + 1 where id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long current() {
+        Long version = jdbcTemplate.queryForObject(SELECT_SQL, Long.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Увеличивает счётчик один раз на транзакцию, перед коммитом: строка счётчика блокируется
+     * только на время коммита, а импорт, меняющий тысячу вещей, обновляет её один раз.
+     */
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(INCREMENT_SQL);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                jdbcTemplate.update(INCREMENT_SQL);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ItemsVersion.this);
+            }
+        });
+    }
+}
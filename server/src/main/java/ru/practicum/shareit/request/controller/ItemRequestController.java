@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -40,7 +41,11 @@ public class ItemRequestController {
     // GET /requests/{requestId}
     @GetMapping("/{requestId}")
     public ItemRequestDto getById(@RequestHeader(USER_ID_HEADER) long userId,
-                                  @PathVariable long requestId) {
+                                  @PathVariable long requestId,
+                                  WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getETag(userId, requestId))) {
+            return null;
+        }
         return itemRequestService.getById(userId, requestId);
     }
 }
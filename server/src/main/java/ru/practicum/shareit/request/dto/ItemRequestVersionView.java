@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.dto;
+
+/**
+ * Версия запроса и сводка по вещам-ответам — для ETag без сборки {@link ItemRequestDto}.
+ * Вещи не удаляются, а версии только растут, поэтому любое добавление или изменение ответа
+ * меняет хотя бы одно из чисел.
+ */
+public record ItemRequestVersionView(Long requestVersion, Long itemCount, Long maxItemId, Long itemVersionSum) {
+
+    public String etag(long requestId) {
+        return requestId + "-" + requestVersion + "-" + itemCount + "-" + maxItemId + "-" + itemVersionSum;
+    }
+}
@@ -30,4 +30,8 @@ public class ItemRequest {
 
     @Column(nullable = false)
     private LocalDateTime created;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -1,12 +1,30 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequestorIdOrderByCreatedDesc(Long requestorId);
 
     List<ItemRequest> findByRequestorIdNotOrderByCreatedDesc(Long requestorId);
+
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new ru.practicum.shareit.request.dto.ItemRequestVersionView(
+                r.version, count(i.id), coalesce(max(i.id), 0), coalesce(sum(i.version), 0))
+            from ItemRequest r left join Item i on i.request = r
+            where r.id = :requestId
+            group by r.id, r.version
+            """)
+    Optional<ItemRequestVersionView> findVersionById(@Param("requestId") long requestId);
 }
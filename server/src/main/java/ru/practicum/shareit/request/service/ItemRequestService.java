@@ -13,4 +13,9 @@ public interface ItemRequestService {
     List<ItemRequestDto> getOthers(long userId);
 
     ItemRequestDto getById(long userId, long requestId);
+
+    /**
+     * ETag запроса вместе с ответами на него для условного GET.
+     */
+    String getETag(long userId, long requestId);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -8,7 +9,7 @@ import ru.practicum.shareit.request.dto.*;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,11 +18,12 @@ import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceGuard userExistenceGuard;
     private final ItemRepository itemRepository;
 
     private final ItemRequestMapper requestMapper;
@@ -30,8 +32,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestDto create(long userId, ItemRequestCreateDto dto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + userId + " не найден"));
+        User user = userExistenceGuard.requireUser(userId);
 
         ItemRequest saved = itemRequestRepository.save(ItemRequest.builder()
                 .description(dto.getDescription())
@@ -80,6 +81,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
 
+    @Override
+    public String getETag(long userId, long requestId) {
+        ensureUserExists(userId);
+
+        return itemRequestRepository.findVersionById(requestId)
+                .orElseThrow(() -> new NoSuchElementException("Запрос с id = " + requestId + " не найден"))
+                .etag(requestId);
+    }
+
     private List<ItemRequestDto> mapRequestsWithItems(List<ItemRequest> requests) {
         if (requests.isEmpty()) {
             return List.of();
@@ -106,7 +116,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private void ensureUserExists(long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь с id = " + userId + " не найден"));
+        userExistenceGuard.requireExists(userId);
     }
 }
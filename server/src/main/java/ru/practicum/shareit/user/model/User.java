@@ -2,11 +2,17 @@ package ru.practicum.shareit.user.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.user.service.UserExistenceListener;
 
 /**
  * TODO Sprint add-controllers.
  */
 @Entity
+@EntityListeners(UserExistenceListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 @Getter
 @Setter
@@ -24,4 +30,8 @@ public class User {
 
     @Column(name = "email", nullable = false, unique = true)
     private String email;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.user.service;
+
+/**
+ * Множество положительных {@code long} на открытой адресации с линейным пробированием.
+ * {@code 0} служит маркером пустой ячейки, поэтому хранить можно только id > 0.
+ * Не потокобезопасно: синхронизацию обеспечивает {@link UserExistenceGuard}.
+ */
+final class LongHashSet {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = 0L;
+
+    private long[] slots = new long[INITIAL_CAPACITY];
+    private int size;
+
+    boolean contains(long value) {
+        long[] table = slots;
+        int mask = table.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == value) {
+                return true;
+            }
+            if (slot == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    boolean add(long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Ожидался положительный id: " + value);
+        }
+        // заполнение держим не выше 1/2, чтобы цепочки пробирования оставались короткими
+        if ((size + 1) * 2 > slots.length) {
+            resize(slots.length * 2);
+        }
+        int mask = slots.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == value) {
+                return false;
+            }
+            if (slot == EMPTY) {
+                slots[i] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    boolean remove(long value) {
+        int mask = slots.length - 1;
+        int i = index(value, mask);
+        while (slots[i] != value) {
+            if (slots[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // обратный сдвиг: переносим в освободившуюся ячейку элементы, чья цепочка через неё проходила
+        int gap = i;
+        for (int j = (gap + 1) & mask; slots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(slots[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                slots[gap] = slots[j];
+                gap = j;
+            }
+        }
+        slots[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        slots = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] old = slots;
+        slots = new long[capacity];
+        size = 0;
+        for (long value : old) {
+            if (value != EMPTY) {
+                add(value);
+            }
+        }
+    }
+
+    private static int index(long value, int mask) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
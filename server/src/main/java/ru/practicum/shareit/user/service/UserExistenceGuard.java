@@ -0,0 +1,134 @@
+package ru.practicum.shareit.user.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Проверка существования пользователя.
+ * <p>
+ * Положительный ответ всегда подтверждается {@code findById}: пользователь лежит в L2-кэше,
+ * поэтому повторная проверка обычно не доходит до БД, а удалённый пользователь не вернётся ссылкой.
+ * <p>
+ * При {@code shareit.user.existence-guard.enabled=true} дополнительно хранится множество id,
+ * среди которых заведомо есть все существующие пользователи: заполняется при старте, пополняется
+ * при вставке и очищается после коммита удаления (см. {@link UserExistenceListener}). Отсутствие id
+ * в множестве — окончательный ответ без запроса в БД. Множество видит только вставки через JPA
+ * этого экземпляра, поэтому режим по умолчанию выключен: пользователь, созданный другим экземпляром
+ * или в обход JPA, получал бы 404 до перезапуска.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserExistenceGuard {
+    private final UserRepository userRepository;
+    private final UserExistenceGuardProperties properties;
+    private final LongHashSet known = new LongHashSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void warmUp() {
+        if (!properties.enabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            known.clear();
+            userRepository.findAllIds().forEach(known::add);
+            log.info("User existence guard warmed up: {} users", known.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null || userId <= 0) {
+            return false;
+        }
+        // промах окончателен; попадание не вычищается и при false: id мог вставить ещё не закоммиченный запрос
+        if (properties.enabled() && !isKnown(userId)) {
+            return false;
+        }
+        return userRepository.findById(userId).isPresent();
+    }
+
+    public void requireExists(Long userId) {
+        if (!exists(userId)) {
+            throw new NoSuchElementException("Пользователь с id = " + userId + " не найден");
+        }
+    }
+
+    /**
+     * @return ссылка на пользователя без загрузки сущности
+     */
+    public User requireUser(Long userId) {
+        requireExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    /**
+     * Запоминает пользователя сразу, ещё до коммита: иначе пользователь из текущей транзакции
+     * получил бы 404. Если вставка откатится, лишний id отсеет {@code findById}.
+     */
+    public void registered(long userId) {
+        if (properties.enabled()) {
+            add(userId);
+        }
+    }
+
+    /**
+     * Забывает пользователя только после коммита удаления: до него пользователь существует,
+     * а при откате удаления должен остаться в множестве.
+     */
+    public void removed(long userId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(userId);
+                }
+            });
+        } else {
+            remove(userId);
+        }
+    }
+
+    private boolean isKnown(long userId) {
+        lock.readLock().lock();
+        try {
+            return known.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(long userId) {
+        lock.writeLock().lock();
+        try {
+            known.add(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            known.remove(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
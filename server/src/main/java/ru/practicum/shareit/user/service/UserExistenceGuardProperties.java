@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled отвечать «нет» по множеству известных id без запроса в БД; допустимо только для одного
+ *                экземпляра сервера, в который пишутся все пользователи
+ */
+@ConfigurationProperties(prefix = "shareit.user.existence-guard")
+public record UserExistenceGuardProperties(@DefaultValue("false") boolean enabled) {
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.user.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Ведёт {@link UserExistenceGuard} по событиям JPA, так что любая вставка и удаление пользователя
+ * через JPA попадают в множество, а не только вызовы {@link UserService}.
+ * <p>
+ * Hibernate создаёт слушателя через контейнер бинов Spring при старте фабрики сущностей,
+ * поэтому охранник берётся лениво: он сам зависит от репозитория этой фабрики.
+ */
+@Component
+public class UserExistenceListener {
+    private final ObjectProvider<UserExistenceGuard> userExistenceGuard;
+
+    public UserExistenceListener(ObjectProvider<UserExistenceGuard> userExistenceGuard) {
+        this.userExistenceGuard = userExistenceGuard;
+    }
+
+    @PostPersist
+    public void persisted(User user) {
+        userExistenceGuard.getObject().registered(user.getId());
+    }
+
+    @PostRemove
+    public void removed(User user) {
+        userExistenceGuard.getObject().removed(user.getId());
+    }
+}
@@ -11,6 +11,11 @@ public interface UserService {
 
     UserDto getById(Long userId);
 
+    /**
+     * ETag пользователя для условного GET.
+     */
+    String getETag(Long userId);
+
     List<UserDto> getAll();
 
     void delete(Long userId);
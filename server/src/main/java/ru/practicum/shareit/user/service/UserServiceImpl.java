@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "shareit.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
@@ -22,8 +24,8 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto create(UserDto userDto) {
         checkEmailUnique(userDto.getEmail(), null);
-        User user = userMapper.toModel(userDto);
-        return userMapper.toDto(userRepository.save(user));
+        User user = userRepository.save(userMapper.toModel(userDto));
+        return userMapper.toDto(user);
     }
 
     @Override
@@ -50,6 +52,14 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDto(user);
     }
 
+    // сущность берётся из кэша второго уровня, так что проверка версии обходится без запроса в БД
+    @Override
+    public String getETag(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Пользователь не найден: id=" + userId));
+        return userId + "-" + user.getVersion();
+    }
+
     @Override
     public List<UserDto> getAll() {
         return userRepository.findAll().stream()
@@ -0,0 +1,76 @@
+-- Объекты только для PostgreSQL; H2 (профиль test) загружает один schema.sql.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- поиск: ilike '%text%' по доступным вещам (TrigramItemSearchEngine)
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (description gin_trgm_ops) WHERE available;
+
+-- items_seq: в базе, где вещи создавались через IDENTITY, последовательность сдвигается за max(id)
+SELECT setval('items_seq', m.max_id + 50) FROM (SELECT MAX(id) AS max_id FROM items) m, items_seq s WHERE m.max_id >= s.last_value;
+
+-- bookings: не более одной активной (WAITING/APPROVED) брони вещи на любой момент времени;
+-- тело DO в одинарных кавычках, чтобы загрузчик скриптов не резал его по ';'
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- EXCLUDE нельзя добавить как NOT VALID, поэтому ограничение создаётся, только если в данных нет
+-- пересекающихся активных броней. Иначе запуск прерывается со списком пар id: какую из броней
+-- отклонить, решает оператор вручную, после чего сервер добавит ограничение при следующем старте.
+-- Таблица блокируется от записи до конца оператора, чтобы между проверкой и созданием
+-- ограничения не появилось новых пересечений.
+DO '
+DECLARE
+    conflicts BIGINT;
+    report TEXT;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''excl_booking_item_overlap'') THEN
+        RETURN;
+    END IF;
+
+    LOCK TABLE bookings IN SHARE ROW EXCLUSIVE MODE;
+
+    SELECT count(*), string_agg(format(''%s/%s (item %s)'', p.first_id, p.second_id, p.item_id), '', '')
+    INTO conflicts, report
+    FROM (
+        SELECT a.id AS first_id, b.id AS second_id, a.item_id
+        FROM bookings a
+        JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id
+        WHERE a.status IN (''WAITING'', ''APPROVED'')
+          AND b.status IN (''WAITING'', ''APPROVED'')
+          AND tsrange(a.start_time, a.end_time) && tsrange(b.start_time, b.end_time)
+        ORDER BY a.item_id, a.id, b.id
+        LIMIT 100
+    ) p;
+
+    IF conflicts > 0 THEN
+        RAISE EXCEPTION ''cannot add excl_booking_item_overlap: active bookings overlap (first % pairs): %'',
+            conflicts, report
+            USING HINT = ''Reject or cancel one booking of each pair, then restart the server.'';
+    END IF;
+
+    ALTER TABLE bookings ADD CONSTRAINT excl_booking_item_overlap
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+        WHERE (status IN (''WAITING'', ''APPROVED''));
+END';
+
+-- bookings.owner_id: внешний ключ для баз, где колонку добавила миграция в schema.sql
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''fk_booking_owner'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users (id);
+    END IF;
+END';
+
+-- bookings.owner_id повторяет items.owner_id: при смене владельца вещи брони переходят к новому,
+-- а их version растёт, чтобы сменился ETag брони. Та же логика для H2 — в BookingOwnerTriggerTest
+CREATE OR REPLACE FUNCTION bookings_follow_item_owner() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    UPDATE bookings SET owner_id = NEW.owner_id, version = version + 1 WHERE item_id = NEW.id;
+    RETURN NULL;
+END';
+
+DROP TRIGGER IF EXISTS trg_items_owner_to_bookings ON items;
+CREATE TRIGGER trg_items_owner_to_bookings
+    AFTER UPDATE OF owner_id ON items
+    FOR EACH ROW WHEN (OLD.owner_id IS DISTINCT FROM NEW.owner_id)
+    EXECUTE FUNCTION bookings_follow_item_owner();
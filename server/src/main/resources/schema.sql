@@ -2,6 +2,7 @@ CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT uq_user_email UNIQUE (email)
 );
@@ -11,6 +12,7 @@ CREATE TABLE IF NOT EXISTS requests (
     description VARCHAR(1024) NOT NULL,
     requestor_id BIGINT NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_request PRIMARY KEY (id),
     CONSTRAINT fk_request_requestor FOREIGN KEY (requestor_id) REFERENCES users (id)
 );
@@ -26,22 +28,40 @@ CREATE TABLE IF NOT EXISTS items (
     available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users (id),
     CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests (id)
 );
 
-CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items(owner_id);
+-- id вещей выдаёт Hibernate пачками по 50 (pooled), чтобы вставки можно было батчить;
+-- шаг должен совпадать с allocationSize в Item
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+-- вещи владельца по порядку id
+CREATE INDEX IF NOT EXISTS idx_items_owner_id_id ON items(owner_id, id);
 CREATE INDEX IF NOT EXISTS idx_items_request_id ON items(request_id);
 
+-- версия набора вещей для кэша поиска в шлюзе (ItemsVersion): одна строка на всю базу,
+-- её видят все экземпляры сервера
+CREATE TABLE IF NOT EXISTS items_version (
+    id INT NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT pk_items_version PRIMARY KEY (id)
+);
+INSERT INTO items_version (id, version) SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM items_version);
+
 CREATE TABLE IF NOT EXISTS bookings (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_time   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id    BIGINT NOT NULL,
+    owner_id   BIGINT NOT NULL,
     booker_id  BIGINT NOT NULL,
     status     VARCHAR(20) NOT NULL,
+    version    BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users (id),
     CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (id),
     CONSTRAINT chk_booking_time CHECK (start_time < end_time),
     CONSTRAINT chk_booking_status CHECK (
@@ -49,10 +69,23 @@ CREATE TABLE IF NOT EXISTS bookings (
     )
 );
 
-CREATE INDEX IF NOT EXISTS idx_bookings_item_id ON bookings(item_id);
-CREATE INDEX IF NOT EXISTS idx_bookings_booker_id ON bookings(booker_id);
+-- Индексы повторяют запросы BookingRepository (проверяет BookingRepositoryExplainTest).
+-- Списки броней отсортированы по (start_time desc, id desc) — это же ключ keyset-курсора,
+-- поэтому индекс отдаёт строки уже в нужном порядке и страница читается без сортировки.
+
+-- брони пользователя: state ALL, CURRENT, FUTURE
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings(booker_id, start_time DESC, id DESC);
+-- брони пользователя: state WAITING, REJECTED
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings(booker_id, status, start_time DESC, id DESC);
+-- брони пользователя: state PAST
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings(booker_id, end_time);
+-- право на комментарий: завершённая подтверждённая аренда вещи
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status_end ON bookings(booker_id, item_id, status, end_time);
+
+-- последнее/следующее бронирование вещи, проверка пересечений
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings(item_id, status, start_time);
+-- прогрев индекса доступности: все активные брони
 CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings(status);
-CREATE INDEX IF NOT EXISTS idx_bookings_start_time ON bookings(start_time);
 
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -68,3 +101,30 @@ CREATE TABLE IF NOT EXISTS comments (
 CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments(item_id);
 CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments(item_id, created DESC);
 CREATE INDEX IF NOT EXISTS idx_comments_author_id ON comments(author_id);
+
+-- версия строки для оптимистичной блокировки и ETag; для баз, созданных до её появления
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- владелец вещи в брони (Booking.ownerId); для баз, созданных до его появления.
+-- Заполняются только пустые owner_id, поэтому на уже перенесённой базе UPDATE строк не меняет
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+UPDATE bookings b SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = b.item_id) WHERE b.owner_id IS NULL;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+-- брони владельца и выгрузка читаются по bookings.owner_id без join с items: state ALL, CURRENT, FUTURE
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings(owner_id, start_time DESC, id DESC);
+-- брони владельца: state WAITING, REJECTED
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings(owner_id, status, start_time DESC, id DESC);
+-- брони владельца: state PAST
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_end ON bookings(owner_id, end_time);
+
+-- одноколоночные индексы, заменённые составными
+DROP INDEX IF EXISTS idx_items_owner_id;
+DROP INDEX IF EXISTS idx_bookings_item_id;
+DROP INDEX IF EXISTS idx_bookings_booker_id;
+DROP INDEX IF EXISTS idx_bookings_start_time;
+-- брони владельца больше не ищутся через item_id
+DROP INDEX IF EXISTS idx_bookings_item_start;
@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Кэш второго уровня обновляется только при коммите, поэтому тест работает без общей транзакции
+ * и сам удаляет созданные данные.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void userShouldBeServedFromCacheAndEvictedOnUpdateAndDelete() {
+        UserDto created = userService.create(userDto("Cached", "cached-user@mail.com"));
+        Long id = created.getId();
+        assertThat(userService.getById(id).getName()).isEqualTo("Cached");
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        try {
+            assertThat(userService.getById(id).getName()).isEqualTo("Cached");
+
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+            assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount()).isEqualTo(1);
+            assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                    .tag("region", "users").tag("result", "hit")
+                    .functionCounter().count()).isEqualTo(1);
+
+            userService.update(id, userDto("Renamed", null));
+            assertThat(userService.getById(id).getName()).isEqualTo("Renamed");
+        } finally {
+            userService.delete(id);
+        }
+
+        assertThatThrownBy(() -> userService.getById(id))
+                .hasMessageContaining("Пользователь не найден");
+    }
+
+    @Test
+    void itemUpdateShouldRefreshCachedEntry() {
+        UserDto owner = userService.create(userDto("Owner", "cached-owner@mail.com"));
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Ударная");
+        itemDto.setAvailable(true);
+        Long itemId = itemService.add(owner.getId(), itemDto).getId();
+        try {
+            ItemDto patch = new ItemDto();
+            patch.setAvailable(false);
+            itemService.update(owner.getId(), itemId, patch);
+
+            Statistics statistics = statistics();
+            statistics.clear();
+            assertThat(itemRepository.findById(itemId)).get()
+                    .extracting(Item::getAvailable).isEqualTo(false);
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+        } finally {
+            itemRepository.deleteById(itemId);
+            userService.delete(owner.getId());
+        }
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static UserDto userDto(String name, String email) {
+        UserDto dto = new UserDto();
+        dto.setName(name);
+        dto.setEmail(email);
+        return dto;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class ServiceMetricsTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void serviceMethodsAreTimedByClassAndMethod() {
+        userService.create(user("metrics-service@mail.com"));
+
+        assertThat(meterRegistry.get("shareit.service")
+                .tags("class", "ru.practicum.shareit.user.service.UserServiceImpl", "method", "create", "error", "none")
+                .timer()
+                .count()).isPositive();
+    }
+
+    @Test
+    void repositoryQueriesAreTimed() {
+        userService.create(user("metrics-repository@mail.com"));
+
+        assertThat(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "UserRepository")
+                .timers()).isNotEmpty();
+    }
+
+    @Test
+    void prometheusEndpointPublishesHistogramBuckets() throws Exception {
+        userService.create(user("metrics-prometheus@mail.com"));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_service_seconds_bucket{")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("application=\"shareit-server\"")));
+    }
+
+    private static UserDto user(String email) {
+        UserDto dto = new UserDto();
+        dto.setName("Метрики");
+        dto.setEmail(email);
+        return dto;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.common.sql.SqlStatementCounter;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ограничение числа SQL-запросов сценария: регрессия N+1 роняет тест, а не доходит до production.
+ * Перед вызовом тест должен сбросить и очистить контекст персистентности, иначе в счёт попадут
+ * отложенные вставки подготовки данных и не попадут запросы, закрытые кэшем первого уровня.
+ */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    public static <T> T assertStatementsAtMost(int max, Supplier<T> action) {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            T result = action.get();
+            assertThat(sql.statements())
+                    .as("SQL-запросов выполнено")
+                    .isLessThanOrEqualTo(max);
+            return result;
+        }
+    }
+
+    public static int countStatements(Runnable action) {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            action.run();
+            return sql.statements();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class VirtualThreadsTest {
+    private static final Set<Boolean> REQUEST_THREADS_VIRTUAL = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    void requestsShouldBeHandledOnVirtualThreads() {
+        REQUEST_THREADS_VIRTUAL.clear();
+
+        assertThat(restTemplate.getForEntity("/users", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(REQUEST_THREADS_VIRTUAL).containsExactly(true);
+    }
+
+    @Test
+    void asyncTasksShouldRunOnVirtualThreads() throws Exception {
+        boolean virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual())
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(virtual).isTrue();
+    }
+
+    @TestConfiguration
+    static class RequestThreadProbe {
+        @Bean
+        WebMvcConfigurer requestThreadProbeConfigurer() {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addInterceptors(InterceptorRegistry registry) {
+                    registry.addInterceptor(new HandlerInterceptor() {
+                        @Override
+                        public boolean preHandle(HttpServletRequest request,
+                                                 HttpServletResponse response,
+                                                 Object handler) {
+                            REQUEST_THREADS_VIRTUAL.add(Thread.currentThread().isVirtual());
+                            return true;
+                        }
+                    });
+                }
+            };
+        }
+    }
+}
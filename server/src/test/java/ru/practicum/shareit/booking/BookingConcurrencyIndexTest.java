@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Те же сценарии, но проверка пересечений идёт по индексу в памяти, обновляемому после коммита.
+ */
+@TestPropertySource(properties = "shareit.booking.availability=index")
+class BookingConcurrencyIndexTest extends BookingConcurrencyTest {
+}
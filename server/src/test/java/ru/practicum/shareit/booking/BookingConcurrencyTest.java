@@ -0,0 +1,178 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Брони создаются в собственных транзакциях из разных потоков, поэтому тест работает
+ * без общей транзакции и сам удаляет созданные данные.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+    private static final int THREADS = 64;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final List<User> bookers = new ArrayList<>();
+    private User owner;
+    private Item item;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("stress-owner@mail.com").build());
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder()
+                    .name("Booker" + i).email("stress-booker" + i + "@mail.com").build()));
+        }
+        item = itemRepository.save(Item.builder()
+                .name("Stress drill").description("desc").available(true).owner(owner).build());
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(b -> b.getItem().getId().equals(item.getId()))
+                .toList());
+        itemRepository.deleteById(item.getId());
+        bookers.forEach(userRepository::delete);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void sameSlotFrom64ThreadsShouldBeBookedOnce() throws Exception {
+        int created = hammer(i -> request(base, base.plusDays(2)));
+
+        assertThat(created).isEqualTo(1);
+        assertThat(bookingsOfItem()).hasSize(1);
+    }
+
+    @Test
+    void disjointSlotsFrom64ThreadsShouldAllBeBooked() throws Exception {
+        int created = hammer(i -> request(base.plusHours(i), base.plusHours(i + 1)));
+
+        assertThat(created).isEqualTo(THREADS);
+        assertThat(bookingsOfItem()).hasSize(THREADS);
+    }
+
+    @Test
+    void concurrentBatchDecisionsShouldReportEachBookingOnce() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            ids.add(bookingRepository.save(Booking.builder()
+                    .item(item).booker(bookers.get(i)).start(base.plusHours(i)).end(base.plusHours(i + 1))
+                    .status(BookingStatus.WAITING).build()).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<BookingDecisionDto>>> batches = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                // разный порядок id в пакетах не должен приводить к взаимоблокировке
+                List<Long> batch = new ArrayList<>(ids);
+                Collections.rotate(batch, i * 8);
+                batches.add(executor.submit(() -> {
+                    start.await();
+                    return bookingService.approveAll(owner.getId(), batch, true);
+                }));
+            }
+            start.countDown();
+
+            Map<Long, Integer> decided = new HashMap<>();
+            for (Future<List<BookingDecisionDto>> batch : batches) {
+                batch.get().stream()
+                        .filter(result -> result.getError() == null)
+                        .forEach(result -> decided.merge(result.getBookingId(), 1, Integer::sum));
+            }
+            assertThat(decided).hasSize(THREADS).allSatisfy((id, times) -> assertThat(times).isEqualTo(1));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(bookingsOfItem()).allSatisfy(b -> assertThat(b.getStatus()).isEqualTo(BookingStatus.APPROVED));
+    }
+
+    private int hammer(IntFunction<BookingCreateRequestDto> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Long bookerId = bookers.get(i).getId();
+                BookingCreateRequestDto dto = requests.apply(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.create(bookerId, dto);
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    created++;
+                }
+            }
+            return created;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private BookingCreateRequestDto request(LocalDateTime start, LocalDateTime end) {
+        BookingCreateRequestDto dto = new BookingCreateRequestDto();
+        dto.setItemId(item.getId());
+        dto.setStart(start);
+        dto.setEnd(end);
+        return dto;
+    }
+
+    private List<Booking> bookingsOfItem() {
+        return bookingRepository.findAll().stream()
+                .filter(b -> b.getItem().getId().equals(item.getId()))
+                .toList();
+    }
+}
@@ -5,17 +5,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -96,6 +102,27 @@ class BookingControllerTest {
         verify(bookingService).approve(10L, 5L, true);
     }
 
+    @Test
+    void approveAllShouldReturnPerBookingResults() throws Exception {
+        when(bookingService.approveAll(10L, List.of(5L, 6L), false)).thenReturn(List.of(
+                BookingDecisionDto.decided(5L, BookingStatus.REJECTED),
+                BookingDecisionDto.failed(6L, "Решение уже принято")));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, "10")
+                        .param("approved", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[5,6]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(5))
+                .andExpect(jsonPath("$[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].bookingId").value(6))
+                .andExpect(jsonPath("$[1].error").value("Решение уже принято"));
+
+        verify(bookingService).approveAll(10L, List.of(5L, 6L), false);
+        verify(bookingService, never()).approve(anyLong(), anyLong(), anyBoolean());
+    }
+
     @Test
     void approveShouldReturn500WhenNoHeader() throws Exception {
         mockMvc.perform(patch("/bookings/5")
@@ -123,6 +150,27 @@ class BookingControllerTest {
         verify(bookingService).getById(10L, 7L);
     }
 
+    @Test
+    void getByIdShouldReturnETagAnd304WhenItMatches() throws Exception {
+        BookingDto response = new BookingDto();
+        response.setId(7L);
+        when(bookingService.getETag(10L, 7L)).thenReturn("7-1-0");
+        when(bookingService.getById(10L, 7L)).thenReturn(response);
+
+        mockMvc.perform(get("/bookings/7")
+                        .header(USER_HEADER, "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7-1-0\""));
+
+        mockMvc.perform(get("/bookings/7")
+                        .header(USER_HEADER, "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"7-1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(bookingService, times(1)).getById(10L, 7L);
+    }
+
     @Test
     void getByBookerShouldReturn200DefaultStateALL_andCallService() throws Exception {
         BookingDto b1 = new BookingDto();
@@ -130,46 +178,87 @@ class BookingControllerTest {
         BookingDto b2 = new BookingDto();
         b2.setId(2L);
 
-        when(bookingService.getByBooker(10L, "ALL")).thenReturn(List.of(b1, b2));
+        when(bookingService.getByBooker(10L, "ALL", 0, 10, null))
+                .thenReturn(new BookingPage(List.of(b1, b2), "next"));
 
         mockMvc.perform(get("/bookings")
                         .header(USER_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[1].id").value(2));
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(header().string("X-Next-Cursor", "next"));
 
-        verify(bookingService).getByBooker(10L, "ALL");
+        verify(bookingService).getByBooker(10L, "ALL", 0, 10, null);
     }
 
     @Test
     void getByBookerShouldReturn200WithStateParam_andCallService() throws Exception {
-        when(bookingService.getByBooker(10L, "PAST")).thenReturn(List.of());
+        when(bookingService.getByBooker(10L, "PAST", 0, 10, null)).thenReturn(new BookingPage(List.of(), null));
 
         mockMvc.perform(get("/bookings")
                         .header(USER_HEADER, "10")
                         .param("state", "PAST"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        verify(bookingService).getByBooker(10L, "PAST", 0, 10, null);
+    }
+
+    @Test
+    void exportByOwnerShouldWriteOneJsonLinePerBooking() throws Exception {
+        BookingDto first = new BookingDto();
+        first.setId(2L);
+        BookingDto second = new BookingDto();
+        second.setId(1L);
+        doAnswer(invocation -> {
+            Consumer<BookingDto> sink = invocation.getArgument(1);
+            sink.accept(first);
+            sink.accept(second);
+            return null;
+        }).when(bookingService).exportByOwner(eq(10L), any());
+
+        String body = mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, "10")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], BookingDto.class).getId()).isEqualTo(2L);
+        assertThat(objectMapper.readValue(lines[1], BookingDto.class).getId()).isEqualTo(1L);
+    }
 
-        verify(bookingService).getByBooker(10L, "PAST");
+    @Test
+    void exportByOwnerShouldReturn404JsonWhenOwnerIsUnknown() throws Exception {
+        doThrow(new NoSuchElementException("Пользователь с id = 10 не найден"))
+                .when(bookingService).exportByOwner(eq(10L), any());
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, "10")
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
     }
 
     @Test
     void getByOwnerShouldReturn200DefaultStateALLAndCallService() throws Exception {
-        when(bookingService.getByOwner(10L, "ALL")).thenReturn(List.of());
+        when(bookingService.getByOwner(10L, "ALL", 0, 10, null)).thenReturn(new BookingPage(List.of(), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .header(USER_HEADER, "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(bookingService).getByOwner(10L, "ALL");
+        verify(bookingService).getByOwner(10L, "ALL", 0, 10, null);
     }
 
     @Test
     void getByOwnerShouldReturn200WithStateParamAndCallService() throws Exception {
-        when(bookingService.getByOwner(10L, "FUTURE")).thenReturn(List.of());
+        when(bookingService.getByOwner(10L, "FUTURE", 0, 10, null)).thenReturn(new BookingPage(List.of(), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .header(USER_HEADER, "10")
@@ -177,7 +266,21 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(bookingService).getByOwner(10L, "FUTURE");
+        verify(bookingService).getByOwner(10L, "FUTURE", 0, 10, null);
+    }
+
+    @Test
+    void getByOwnerShouldPassPagingParamsAndCursor() throws Exception {
+        when(bookingService.getByOwner(10L, "ALL", 5, 20, "abc")).thenReturn(new BookingPage(List.of(), null));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_HEADER, "10")
+                        .param("from", "5")
+                        .param("size", "20")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk());
+
+        verify(bookingService).getByOwner(10L, "ALL", 5, 20, "abc");
     }
 
     @Test
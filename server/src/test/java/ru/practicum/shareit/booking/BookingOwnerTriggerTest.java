@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking;
+
+import org.h2.api.Trigger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Смена владельца вещи в БД должна переносить её брони к новому владельцу и менять их ETag.
+ * На PostgreSQL это делает триггер из schema-postgres.sql; H2 не выполняет plpgsql, поэтому
+ * тест ставит {@link ItemOwnerTrigger} с той же логикой. DDL в H2 завершает транзакцию,
+ * поэтому тест работает без общей транзакции и сам удаляет созданные данные.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingOwnerTriggerTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User newOwner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS trg_items_owner_to_bookings AFTER UPDATE ON items "
+                + "FOR EACH ROW CALL \"" + ItemOwnerTrigger.class.getName() + "\"");
+        owner = userRepository.save(User.builder().name("Owner").email("trigger-owner@mail.com").build());
+        newOwner = userRepository.save(User.builder().name("New owner").email("trigger-new-owner@mail.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("trigger-booker@mail.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Drill").description("Powerful").available(true).owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        booking = bookingRepository.save(Booking.builder()
+                .item(item).booker(booker).start(start).end(start.plusDays(1))
+                .status(BookingStatus.WAITING).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS trg_items_owner_to_bookings");
+        bookingRepository.deleteById(booking.getId());
+        itemRepository.deleteById(item.getId());
+        userRepository.delete(booker);
+        userRepository.delete(newOwner);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void ownerChangeShouldMoveBookingsAndChangeTheirETag() {
+        String etagBefore = bookingService.getETag(booker.getId(), booking.getId());
+
+        jdbcTemplate.update("UPDATE items SET owner_id = ? WHERE id = ?", newOwner.getId(), item.getId());
+
+        assertThat(bookingService.getByOwner(newOwner.getId(), "ALL", 0, 10, null).getBookings())
+                .extracting(BookingDto::getId).containsExactly(booking.getId());
+        assertThat(bookingService.getByOwner(owner.getId(), "ALL", 0, 10, null).getBookings()).isEmpty();
+        assertThat(bookingService.getETag(booker.getId(), booking.getId())).isNotEqualTo(etagBefore);
+    }
+
+    @Test
+    void updateWithoutOwnerChangeShouldKeepBookingVersion() {
+        String etagBefore = bookingService.getETag(booker.getId(), booking.getId());
+
+        jdbcTemplate.update("UPDATE items SET available = FALSE WHERE id = ?", item.getId());
+
+        assertThat(bookingService.getETag(booker.getId(), booking.getId())).isEqualTo(etagBefore);
+    }
+
+    /**
+     * H2-копия {@code bookings_follow_item_owner()} из schema-postgres.sql.
+     */
+    public static class ItemOwnerTrigger implements Trigger {
+        private int idColumn;
+        private int ownerColumn;
+
+        @Override
+        public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                         boolean before, int type) throws SQLException {
+            try (var columns = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+                while (columns.next()) {
+                    String name = columns.getString("COLUMN_NAME");
+                    int index = columns.getInt("ORDINAL_POSITION") - 1;
+                    if ("id".equalsIgnoreCase(name)) {
+                        idColumn = index;
+                    } else if ("owner_id".equalsIgnoreCase(name)) {
+                        ownerColumn = index;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (Objects.equals(oldRow[ownerColumn], newRow[ownerColumn])) {
+                return;
+            }
+            try (PreparedStatement update = conn.prepareStatement(
+                    "UPDATE bookings SET owner_id = ?, version = version + 1 WHERE item_id = ?")) {
+                update.setObject(1, newRow[ownerColumn]);
+                update.setObject(2, newRow[idColumn]);
+                update.executeUpdate();
+            }
+        }
+    }
+}
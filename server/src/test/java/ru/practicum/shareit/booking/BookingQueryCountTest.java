@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.SqlAssertions.assertStatementsAtMost;
+import static ru.practicum.shareit.SqlAssertions.countStatements;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingQueryCountTest {
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS = 1000;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bookingListsShouldUseConstantNumberOfStatements() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bookers.add(userRepository.save(User.builder().name("Booker" + i).email("booker" + i + "@mail.com").build()));
+        }
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .name("Item" + i).description("desc").available(true).owner(owner).build()));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(Booking.builder()
+                    .item(items.get(i % ITEMS))
+                    .booker(bookers.get(i % bookers.size()))
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingDto> byOwner = bookingService.getByOwner(owner.getId(), "ALL", 0, BOOKINGS, null).getBookings();
+
+        assertThat(byOwner).hasSize(BOOKINGS);
+        assertThat(byOwner).allSatisfy(b -> assertThat(b.getItem().getName()).startsWith("Item"));
+        // проверка пользователя + выборка страницы
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        entityManager.clear();
+        statistics.clear();
+
+        List<BookingDto> byBooker = bookingService.getByBooker(bookers.get(0).getId(), "FUTURE", 0, BOOKINGS, null)
+                .getBookings();
+
+        assertThat(byBooker).hasSize(BOOKINGS / bookers.size());
+        assertThat(byBooker).allSatisfy(b -> assertThat(b.getItem().getName()).startsWith("Item"));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void approveAllShouldNotDependOnNumberOfBookings() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@mail.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Item").description("desc").available(true).owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ITEMS + 1; i++) {
+            ids.add(bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .status(BookingStatus.WAITING)
+                    .build()).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        int forOneBooking = countStatements(() -> bookingService.approveAll(owner.getId(), ids.subList(0, 1), true));
+        assertThat(forOneBooking).isPositive();
+        entityManager.clear();
+
+        List<BookingDecisionDto> decisions = assertStatementsAtMost(forOneBooking,
+                () -> bookingService.approveAll(owner.getId(), ids.subList(1, ids.size()), true));
+
+        assertThat(decisions).hasSize(ITEMS);
+        assertThat(decisions).allSatisfy(d -> assertThat(d.getStatus()).isEqualTo(BookingStatus.APPROVED));
+    }
+}
@@ -0,0 +1,236 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Каждый запрос {@link BookingRepository} на заполненной базе должен читать таблицы по индексам.
+ * SQL, который Hibernate отправляет в базу, перехватывается и прогоняется через {@code EXPLAIN};
+ * план не должен содержать полного сканирования ни одной таблицы. Новый метод репозитория
+ * без сценария здесь тоже роняет тест.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:explain;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.booking.BookingRepositoryExplainTest$SqlCapture",
+        // кэш JCache общий для всех контекстов JVM: вещи отдельной базы explain не должны попасть в другие тесты
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingRepositoryExplainTest {
+    private static final int USERS = 100;
+    private static final int ITEMS = 1_000;
+    private static final int BOOKINGS = 10_000;
+    // H2 помечает доступ к таблице комментарием: "/* PUBLIC.idx: условие */" — поиск по индексу,
+    // "/* PUBLIC.bookings.tableScan */" или "/* PUBLIC.PRIMARY_KEY_7 */" без условия — чтение целиком
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* (PUBLIC\\.[^\\s:]+) \\*/");
+    // брони владельца выбираются по индексу bookings с условием на owner_id, а не через items
+    private static final Pattern OWNER_RANGE =
+            Pattern.compile("FROM \"PUBLIC\"\\.\"bookings\" \"\\w+\"\\s+/\\* PUBLIC\\.\\w+: owner_id = ");
+
+    // методы, не читающие таблицы по условию: их план проверять незачем
+    private static final Set<String> NOT_QUERIES = Set.of();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)",
+                rows(USERS, i -> new Object[]{i, "User" + i, "user" + i + "@mail.com"}));
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id) values (?, ?, ?, true, ?)",
+                rows(ITEMS, i -> new Object[]{i, "Item" + i, "desc", 1 + i % USERS}));
+        BookingStatus[] statuses = BookingStatus.values();
+        jdbcTemplate.batchUpdate(
+                "insert into bookings (id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                        + "values (?, ?, ?, ?, ?, ?, ?)",
+                rows(BOOKINGS, i -> {
+                    LocalDateTime start = now.minusDays(BOOKINGS / 2).plusDays(i);
+                    int item = 1 + i % ITEMS;
+                    return new Object[]{i, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(12)),
+                            item, 1 + item % USERS, 1 + (i * 7) % USERS, statuses[i % statuses.length].name()};
+                }));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void everyRepositoryMethodShouldHaveExplainScenario() {
+        Set<String> declared = Arrays.stream(BookingRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .filter(name -> !NOT_QUERIES.contains(name))
+                .collect(Collectors.toSet());
+
+        assertThat(scenarios().keySet()).containsAll(declared);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesShouldNotScanTables() {
+        return scenarios().entrySet().stream()
+                .map(scenario -> DynamicTest.dynamicTest(scenario.getKey(), () -> {
+                    List<String> statements = capture(scenario.getValue());
+                    assertThat(statements).as("SQL of %s", scenario.getKey()).isNotEmpty();
+                    for (String sql : statements) {
+                        String plan = explain(sql);
+                        assertThat(fullScans(plan)).as("plan of %s:%n%s", scenario.getKey(), plan).isEmpty();
+                        if (scenario.getKey().contains("ByOwnerId")) {
+                            assertThat(plan).as("plan of %s", scenario.getKey()).containsPattern(OWNER_RANGE);
+                        }
+                    }
+                }));
+    }
+
+    private Map<String, Runnable> scenarios() {
+        long booker = 3;
+        long owner = 5;
+        long item = 17;
+        ScrollPosition first = ScrollPosition.offset();
+        ScrollPosition keyset = ScrollPosition.forward(Map.of("start", now, "id", 10_000L));
+        Sort newToOld = Sort.by(Sort.Direction.DESC, "start", "id");
+        Limit limit = Limit.of(10);
+        List<BookingStatus> active = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        Map<String, Runnable> scenarios = new LinkedHashMap<>();
+        scenarios.put("findVersionById", () -> bookingRepository.findVersionById(100L));
+        scenarios.put("updateStatus",
+                () -> bookingRepository.updateStatus(List.of(1L, 2L), BookingStatus.CANCELED, BookingStatus.CANCELED));
+        scenarios.put("findAllByIdForUpdate",
+                () -> bookingRepository.findAllByIdForUpdate(List.of(1L, 2L)));
+        scenarios.put("streamAllByOwnerId", () -> {
+            try (var bookings = bookingRepository.streamAllByOwnerId(owner)) {
+                bookings.findFirst();
+            }
+        });
+        scenarios.put("findAllByBookerId", () -> {
+            bookingRepository.findAllByBookerId(booker, first, newToOld, limit);
+            bookingRepository.findAllByBookerId(booker, keyset, newToOld, limit);
+        });
+        scenarios.put("findAllByBookerIdAndStartBeforeAndEndAfter",
+                () -> bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(booker, now, now, keyset, newToOld, limit));
+        scenarios.put("findAllByBookerIdAndEndBefore",
+                () -> bookingRepository.findAllByBookerIdAndEndBefore(booker, now, keyset, newToOld, limit));
+        scenarios.put("findAllByBookerIdAndStartAfter",
+                () -> bookingRepository.findAllByBookerIdAndStartAfter(booker, now, keyset, newToOld, limit));
+        scenarios.put("findAllByBookerIdAndStatus",
+                () -> bookingRepository.findAllByBookerIdAndStatus(booker, BookingStatus.WAITING, keyset, newToOld, limit));
+        scenarios.put("findAllByOwnerId", () -> {
+            bookingRepository.findAllByOwnerId(owner, first, newToOld, limit);
+            bookingRepository.findAllByOwnerId(owner, keyset, newToOld, limit);
+        });
+        scenarios.put("findAllByOwnerIdAndStartBeforeAndEndAfter",
+                () -> bookingRepository.findAllByOwnerIdAndStartBeforeAndEndAfter(owner, now, now, keyset, newToOld, limit));
+        scenarios.put("findAllByOwnerIdAndEndBefore",
+                () -> bookingRepository.findAllByOwnerIdAndEndBefore(owner, now, keyset, newToOld, limit));
+        scenarios.put("findAllByOwnerIdAndStartAfter",
+                () -> bookingRepository.findAllByOwnerIdAndStartAfter(owner, now, keyset, newToOld, limit));
+        scenarios.put("findAllByOwnerIdAndStatus",
+                () -> bookingRepository.findAllByOwnerIdAndStatus(owner, BookingStatus.WAITING, keyset, newToOld, limit));
+        scenarios.put("findLastByItemIds",
+                () -> bookingRepository.findLastByItemIds(List.of(item, item + 1), BookingStatus.APPROVED, now));
+        scenarios.put("findNextByItemIds",
+                () -> bookingRepository.findNextByItemIds(List.of(item, item + 1), BookingStatus.APPROVED, now));
+        scenarios.put("existsOverlapping",
+                () -> bookingRepository.existsOverlapping(item, active, now, now.plusDays(1)));
+        scenarios.put("findAllByStatusInAndEndAfter",
+                () -> bookingRepository.findAllByStatusInAndEndAfter(active, now, PageRequest.of(0, 100, Sort.by("id"))));
+        scenarios.put("findLastEndedByStatus",
+                () -> bookingRepository.findLastEndedByStatus(BookingStatus.APPROVED, now));
+        scenarios.put("existsByItemIdAndBookerIdAndStatusAndEndBefore",
+                () -> bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(item, booker, BookingStatus.APPROVED, now));
+        return scenarios;
+    }
+
+    private List<String> capture(Runnable scenario) {
+        SqlCapture.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            scenario.run();
+            status.setRollbackOnly();
+        });
+        return new ArrayList<>(SqlCapture.STATEMENTS);
+    }
+
+    // параметры не влияют на выбор индекса в H2, поэтому план строится с NULL вместо значений
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private static List<String> fullScans(String plan) {
+        List<String> tables = new ArrayList<>();
+        Matcher matcher = FULL_SCAN.matcher(plan);
+        while (matcher.find()) {
+            tables.add(matcher.group(1));
+        }
+        return tables;
+    }
+
+    private static List<Object[]> rows(int count, IntFunction<Object[]> row) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            rows.add(row.apply(i));
+        }
+        return rows;
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
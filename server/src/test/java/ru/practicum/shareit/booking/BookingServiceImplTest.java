@@ -1,5 +1,8 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,7 +10,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreateRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -19,7 +24,12 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -32,17 +42,20 @@ public class BookingServiceImplTest {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Autowired
     BookingServiceImplTest(
             BookingService bookingService,
             BookingRepository bookingRepository,
             UserRepository userRepository,
-            ItemRepository itemRepository) {
+            ItemRepository itemRepository,
+            EntityManagerFactory entityManagerFactory) {
         this.bookingService = bookingService;
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     private static final String OWNER_NAME = "Owner";
@@ -79,6 +92,7 @@ public class BookingServiceImplTest {
         Booking fromDb = bookingRepository.findById(saved.getId()).orElseThrow();
         assertThat(fromDb.getBooker().getId()).isEqualTo(booker.getId());
         assertThat(fromDb.getItem().getId()).isEqualTo(item.getId());
+        assertThat(fromDb.getOwnerId()).isEqualTo(owner.getId());
         assertThat(fromDb.getStatus()).isEqualTo(BookingStatus.WAITING);
     }
 
@@ -145,6 +159,39 @@ public class BookingServiceImplTest {
                 .hasMessageContaining("Дата начала не может быть в прошлом");
     }
 
+    @Test
+    void createShouldFailWhenActiveBookingOverlaps() {
+        User owner = saveUser(OWNER_NAME, OWNER_EMAIL);
+        User booker = saveUser(BOOKER_NAME, BOOKER_EMAIL);
+        User other = saveUser(OTHER_NAME, OTHER_EMAIL);
+        Item item = saveItem(owner, DRILL_NAME, true);
+        // H2 хранит микросекунды: без усечения граница смежных броней сместилась бы при округлении
+        LocalDateTime day = now.truncatedTo(ChronoUnit.SECONDS);
+        saveBooking(item, other, day.plusDays(1), day.plusDays(3), BookingStatus.APPROVED);
+        saveBooking(item, other, day.plusDays(5), day.plusDays(6), BookingStatus.REJECTED);
+
+        BookingCreateRequestDto overlapping = new BookingCreateRequestDto();
+        overlapping.setItemId(item.getId());
+        overlapping.setStart(day.plusDays(2));
+        overlapping.setEnd(day.plusDays(4));
+
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), overlapping))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Вещь уже забронирована");
+
+        BookingCreateRequestDto adjacent = new BookingCreateRequestDto();
+        adjacent.setItemId(item.getId());
+        adjacent.setStart(day.plusDays(3));
+        adjacent.setEnd(day.plusDays(4));
+        assertThat(bookingService.create(booker.getId(), adjacent).getStatus()).isEqualTo(BookingStatus.WAITING);
+
+        BookingCreateRequestDto overRejected = new BookingCreateRequestDto();
+        overRejected.setItemId(item.getId());
+        overRejected.setStart(day.plusDays(5));
+        overRejected.setEnd(day.plusDays(6));
+        assertThat(bookingService.create(booker.getId(), overRejected).getStatus()).isEqualTo(BookingStatus.WAITING);
+    }
+
     @Test
     void approveShouldSetApprovedWhenOwnerApproves() {
         User owner = saveUser(OWNER_NAME, OWNER_EMAIL);
@@ -280,6 +327,75 @@ public class BookingServiceImplTest {
         assertThat(byOwner.getId()).isEqualTo(booking.getId());
     }
 
+    @Test
+    void approveAllShouldDecideOwnWaitingBookingsInOneUpdateAndReportTheRest() {
+        User owner = saveUser(OWNER_NAME, OWNER_EMAIL);
+        User booker = saveUser(BOOKER_NAME, BOOKER_EMAIL);
+        User other = saveUser(OTHER_NAME, OTHER_EMAIL);
+        Item drill = saveItem(owner, DRILL_NAME, true);
+        Item saw = saveItem(owner, "Saw", true);
+        Item foreign = saveItem(other, "Hammer", true);
+        Booking first = saveBooking(drill, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        Booking second = saveBooking(saw, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        Booking decided = saveBooking(drill, booker, now.plusDays(3), now.plusDays(4), BookingStatus.REJECTED);
+        Booking notOwned = saveBooking(foreign, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingDecisionDto> results = bookingService.approveAll(owner.getId(),
+                List.of(first.getId(), second.getId(), decided.getId(), notOwned.getId(), 999_999L, first.getId()),
+                true);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(results).extracting(BookingDecisionDto::getBookingId)
+                .containsExactly(first.getId(), second.getId(), decided.getId(), notOwned.getId(), 999_999L);
+        assertThat(results).extracting(BookingDecisionDto::getStatus)
+                .containsExactly(BookingStatus.APPROVED, BookingStatus.APPROVED, null, null, null);
+        assertThat(results).extracting(BookingDecisionDto::getError)
+                .containsExactly(null, null, "Решение уже принято",
+                        "Подтвердить/отклонить может только владелец вещи", "Бронирование с id = 999999 не найдено");
+        assertThat(bookingRepository.findById(first.getId()).orElseThrow().getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(bookingRepository.findById(notOwned.getId()).orElseThrow().getStatus()).isEqualTo(BookingStatus.WAITING);
+    }
+
+    @Test
+    void approveAllShouldRejectEmptyList() {
+        assertThatThrownBy(() -> bookingService.approveAll(1L, List.of(), true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void approveAllShouldRejectTooLongList() {
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        assertThatThrownBy(() -> bookingService.approveAll(1L, ids, true))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("не более 1000");
+    }
+
+    @Test
+    void getETagShouldChangeWithBookingAndItemAndCheckAccess() {
+        User owner = saveUser(OWNER_NAME, OWNER_EMAIL);
+        User booker = saveUser(BOOKER_NAME, BOOKER_EMAIL);
+        User other = saveUser(OTHER_NAME, OTHER_EMAIL);
+        Item item = saveItem(owner, DRILL_NAME, true);
+        Booking booking = saveBooking(item, booker,
+                now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+
+        String initial = bookingService.getETag(booker.getId(), booking.getId());
+        assertThat(bookingService.getETag(owner.getId(), booking.getId())).isEqualTo(initial);
+
+        bookingService.approve(owner.getId(), booking.getId(), true);
+        String approved = bookingService.getETag(booker.getId(), booking.getId());
+        assertThat(approved).isNotEqualTo(initial);
+
+        item.setName("Drill XL");
+        assertThat(bookingService.getETag(booker.getId(), booking.getId())).isNotEqualTo(approved);
+
+        assertThatThrownBy(() -> bookingService.getETag(other.getId(), booking.getId()))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
     @Test
     void getByIdShouldFailForThirdUser() {
         User owner = saveUser(OWNER_NAME, OWNER_EMAIL);
@@ -314,20 +430,20 @@ public class BookingServiceImplTest {
         Booking waiting = saveBooking(item3, booker, now.plusDays(3), now.plusDays(4), BookingStatus.WAITING);
         Booking rejected = saveBooking(item3, booker, now.plusDays(5), now.plusDays(6), BookingStatus.REJECTED);
 
-        assertThat(bookingService.getByBooker(booker.getId(), "ALL")).hasSize(5);
+        assertThat(bookingService.getByBooker(booker.getId(), "ALL", 0, 10, null).getBookings()).hasSize(5);
 
-        assertThat(bookingService.getByBooker(booker.getId(), "PAST"))
+        assertThat(bookingService.getByBooker(booker.getId(), "PAST", 0, 10, null).getBookings())
                 .extracting(BookingDto::getStatus)
                 .containsOnly(BookingStatus.APPROVED);
 
-        assertThat(bookingService.getByBooker(booker.getId(), "CURRENT")).hasSize(1);
-        assertThat(bookingService.getByBooker(booker.getId(), "FUTURE")).hasSize(3); // future + waiting + rejected по времени startAfter
+        assertThat(bookingService.getByBooker(booker.getId(), "CURRENT", 0, 10, null).getBookings()).hasSize(1);
+        assertThat(bookingService.getByBooker(booker.getId(), "FUTURE", 0, 10, null).getBookings()).hasSize(3); // future + waiting + rejected по времени startAfter
 
-        assertThat(bookingService.getByBooker(booker.getId(), "WAITING"))
+        assertThat(bookingService.getByBooker(booker.getId(), "WAITING", 0, 10, null).getBookings())
                 .extracting(BookingDto::getId)
                 .contains(waiting.getId());
 
-        assertThat(bookingService.getByBooker(booker.getId(), "REJECTED"))
+        assertThat(bookingService.getByBooker(booker.getId(), "REJECTED", 0, 10, null).getBookings())
                 .extracting(BookingDto::getId)
                 .contains(rejected.getId());
     }
@@ -347,19 +463,104 @@ public class BookingServiceImplTest {
         Booking waiting = saveBooking(item3, booker, now.plusDays(3), now.plusDays(4), BookingStatus.WAITING);
         Booking rejected = saveBooking(item3, booker, now.plusDays(5), now.plusDays(6), BookingStatus.REJECTED);
 
-        assertThat(bookingService.getByOwner(owner.getId(), "ALL")).hasSize(5);
-        assertThat(bookingService.getByOwner(owner.getId(), "CURRENT")).hasSize(1);
-        assertThat(bookingService.getByOwner(owner.getId(), "PAST")).hasSize(1);
+        assertThat(bookingService.getByOwner(owner.getId(), "ALL", 0, 10, null).getBookings()).hasSize(5);
+        assertThat(bookingService.getByOwner(owner.getId(), "CURRENT", 0, 10, null).getBookings()).hasSize(1);
+        assertThat(bookingService.getByOwner(owner.getId(), "PAST", 0, 10, null).getBookings()).hasSize(1);
 
-        assertThat(bookingService.getByOwner(owner.getId(), "WAITING"))
+        assertThat(bookingService.getByOwner(owner.getId(), "WAITING", 0, 10, null).getBookings())
                 .extracting(BookingDto::getId)
                 .contains(waiting.getId());
 
-        assertThat(bookingService.getByOwner(owner.getId(), "REJECTED"))
+        assertThat(bookingService.getByOwner(owner.getId(), "REJECTED", 0, 10, null).getBookings())
                 .extracting(BookingDto::getId)
                 .contains(rejected.getId());
     }
 
+    @Test
+    void getByOwnerShouldPageWithOffset() {
+        User owner = saveUser(OWNER_NAME, OWNER_EMAIL);
+        User booker = saveUser(BOOKER_NAME, BOOKER_EMAIL);
+        Item item = saveItem(owner, DRILL_NAME, true);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            ids.add(saveBooking(item, booker, now.plusDays(i), now.plusDays(i).plusHours(1),
+                    BookingStatus.APPROVED).getId());
+        }
+        Collections.reverse(ids);
+
+        BookingPage page = bookingService.getByOwner(owner.getId(), "ALL", 1, 2, null);
+
+        assertThat(page.getBookings()).extracting(BookingDto::getId).containsExactly(ids.get(1), ids.get(2));
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void getByBookerShouldWalkAllPagesWithCursor() {
+        User owner = saveUser(OWNER_NAME, OWNER_EMAIL);
+        User booker = saveUser(BOOKER_NAME, BOOKER_EMAIL);
+        Item item = saveItem(owner, DRILL_NAME, true);
+
+        // усечение до секунд: сущности в контексте хранят наносекунды, а БД округляет до микросекунд
+        LocalDateTime sameStart = now.plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            expected.add(saveBooking(item, booker, sameStart, sameStart.plusHours(1),
+                    BookingStatus.WAITING).getId());
+        }
+        expected.add(saveBooking(item, booker, now.minusDays(2), now.minusDays(1),
+                BookingStatus.APPROVED).getId());
+        List<Long> sameStartDesc = new ArrayList<>(expected.subList(0, 3));
+        Collections.reverse(sameStartDesc);
+        sameStartDesc.add(expected.get(3));
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingPage page = bookingService.getByBooker(booker.getId(), "ALL", 0, 2, cursor);
+            page.getBookings().forEach(b -> walked.add(b.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).containsExactlyElementsOf(sameStartDesc);
+    }
+
+    @Test
+    void getByBookerShouldFailOnMalformedCursor() {
+        User booker = saveUser(BOOKER_NAME, BOOKER_EMAIL);
+
+        assertThatThrownBy(() -> bookingService.getByBooker(booker.getId(), "ALL", 0, 10, "not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Некорректный курсор");
+    }
+
+    @Test
+    void exportByOwnerShouldPassAllOwnerBookingsNewestFirst() {
+        User owner = saveUser(OWNER_NAME, OWNER_EMAIL);
+        User booker = saveUser(BOOKER_NAME, BOOKER_EMAIL);
+        User other = saveUser(OTHER_NAME, OTHER_EMAIL);
+        Item drill = saveItem(owner, DRILL_NAME, true);
+        Item saw = saveItem(owner, "Saw", true);
+        Item foreign = saveItem(other, "Foreign", true);
+
+        Booking past = saveBooking(drill, booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        Booking future = saveBooking(saw, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        saveBooking(foreign, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportByOwner(owner.getId(), exported::add);
+
+        assertThat(exported).extracting(BookingDto::getId).containsExactly(future.getId(), past.getId());
+        assertThat(exported.get(0).getItem().getName()).isEqualTo("Saw");
+        assertThat(exported.get(0).getBooker().getId()).isEqualTo(booker.getId());
+    }
+
+    @Test
+    void exportByOwnerShouldFailForUnknownUser() {
+        assertThatThrownBy(() -> bookingService.exportByOwner(999L, dto -> { }))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
     private User saveUser(String name, String email) {
         return userRepository.save(User.builder().name(name).email(email).build());
     }
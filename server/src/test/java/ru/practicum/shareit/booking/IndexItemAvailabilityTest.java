@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.availability.IndexItemAvailability;
+import ru.practicum.shareit.booking.dto.ItemBookingShortView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IndexItemAvailabilityTest {
+
+    @Test
+    void shouldWarmUpFromRepositoryAndApplyChangeEvents() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        BookingRepository repository = mock(BookingRepository.class);
+        Booking past = Booking.builder()
+                .id(1L).item(Item.builder().id(5L).build()).booker(User.builder().id(7L).build())
+                .start(now.minusDays(2)).end(now.minusDays(1)).status(BookingStatus.APPROVED)
+                .build();
+        when(repository.findAllByStatusInAndEndAfter(anyCollection(), any(LocalDateTime.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1000), false));
+        when(repository.findLastEndedByStatus(eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(new ItemBookingShortView(5L, 1L, 7L, past.getStart(), past.getEnd())));
+
+        IndexItemAvailability availability = new IndexItemAvailability(repository);
+        availability.warmUp();
+
+        assertThat(availability.findLastApproved(List.of(5L, 6L), now))
+                .extracting(ItemBookingShortView::itemId, ItemBookingShortView::id)
+                .containsExactly(tuple(5L, 1L));
+
+        availability.onBookingChanged(new BookingChangedEvent(
+                2L, 5L, 8L, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING));
+        assertThat(availability.isFree(5L, now.plusDays(1), now.plusDays(3))).isFalse();
+        assertThat(availability.findNextApproved(List.of(5L), now)).isEmpty();
+
+        availability.onBookingChanged(new BookingChangedEvent(
+                2L, 5L, 8L, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED));
+        assertThat(availability.findNextApproved(List.of(5L), now))
+                .extracting(ItemBookingShortView::id).containsExactly(2L);
+
+        availability.onBookingChanged(new BookingChangedEvent(
+                2L, 5L, 8L, now.plusDays(1), now.plusDays(2), BookingStatus.CANCELED));
+        assertThat(availability.isFree(5L, now.plusDays(1), now.plusDays(3))).isTrue();
+        verify(repository, times(1))
+                .findAllByStatusInAndEndAfter(anyCollection(), any(LocalDateTime.class), any(PageRequest.class));
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.ItemBookingShortView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemAvailabilityIndexTest {
+    private static final long ITEM = 1L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void isFreeShouldTreatWindowsAsHalfOpen() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+        index.put(ITEM, 10L, 100L, T0.plusHours(2), T0.plusHours(4), false);
+        index.put(ITEM, 11L, 100L, T0.plusHours(6), T0.plusHours(8), true);
+
+        assertThat(index.isFree(ITEM, T0, T0.plusHours(2))).isTrue();
+        assertThat(index.isFree(ITEM, T0.plusHours(4), T0.plusHours(6))).isTrue();
+        assertThat(index.isFree(ITEM, T0.plusHours(3), T0.plusHours(5))).isFalse();
+        assertThat(index.isFree(ITEM, T0.plusHours(1), T0.plusHours(9))).isFalse();
+        assertThat(index.isFree(ITEM, T0.plusHours(7), T0.plusMinutes(7 * 60 + 30))).isFalse();
+        assertThat(index.isFree(2L, T0.plusHours(3), T0.plusHours(5))).isTrue();
+
+        index.remove(ITEM, 10L);
+        assertThat(index.isFree(ITEM, T0.plusHours(3), T0.plusHours(5))).isTrue();
+    }
+
+    @Test
+    void isFreeShouldSeeLongWindowHiddenBehindShorterOnes() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+        // пересекающиеся брони могли остаться в данных до появления ограничения
+        index.put(ITEM, 1L, 100L, T0, T0.plusDays(10), true);
+        index.put(ITEM, 2L, 100L, T0.plusDays(1), T0.plusDays(2), true);
+
+        assertThat(index.isFree(ITEM, T0.plusDays(5), T0.plusDays(6))).isFalse();
+        assertThat(index.nextFreeSlot(ITEM, T0.plusDays(3), Duration.ofHours(1))).isEqualTo(T0.plusDays(10));
+    }
+
+    @Test
+    void nextFreeSlotShouldSkipGapsThatAreTooShort() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+        index.put(ITEM, 1L, 100L, T0.plusHours(1), T0.plusHours(2), true);
+        index.put(ITEM, 2L, 100L, T0.plusHours(3), T0.plusHours(4), false);
+        index.put(ITEM, 3L, 100L, T0.plusHours(4), T0.plusHours(5), true);
+
+        assertThat(index.nextFreeSlot(ITEM, T0, Duration.ofHours(1))).isEqualTo(T0);
+        assertThat(index.nextFreeSlot(ITEM, T0.plusMinutes(30), Duration.ofHours(1))).isEqualTo(T0.plusHours(2));
+        assertThat(index.nextFreeSlot(ITEM, T0.plusHours(2), Duration.ofHours(2))).isEqualTo(T0.plusHours(5));
+        assertThat(index.nextFreeSlot(ITEM, T0.plusHours(9), Duration.ofHours(2))).isEqualTo(T0.plusHours(9));
+    }
+
+    @Test
+    void lastAndNextShouldSkipWaitingBookings() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+        index.put(ITEM, 1L, 101L, T0.minusDays(3), T0.minusDays(2), true);
+        index.put(ITEM, 2L, 102L, T0.minusDays(1), T0.plusDays(1), false);
+        index.put(ITEM, 3L, 103L, T0.plusDays(2), T0.plusDays(3), false);
+        index.put(ITEM, 4L, 104L, T0.plusDays(4), T0.plusDays(5), true);
+
+        assertThat(index.lastApproved(ITEM, T0)).get()
+                .extracting(ItemBookingShortView::id, ItemBookingShortView::bookerId)
+                .containsExactly(1L, 101L);
+        assertThat(index.nextApproved(ITEM, T0)).get()
+                .extracting(ItemBookingShortView::id, ItemBookingShortView::start)
+                .containsExactly(4L, T0.plusDays(4));
+
+        // подтверждение ожидающей брони заменяет её окно
+        index.put(ITEM, 3L, 103L, T0.plusDays(2), T0.plusDays(3), true);
+        assertThat(index.nextApproved(ITEM, T0)).get().extracting(ItemBookingShortView::id).isEqualTo(3L);
+        assertThat(index.nextApproved(ITEM, T0.plusDays(10))).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void pruneShouldKeepFutureWindowsAndLastEndedApprovedBooking() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.put(ITEM, id, 100L, T0.minusDays(200 - id), T0.minusDays(199 - id), id % 2 == 0);
+        }
+        index.put(ITEM, 101L, 101L, T0.minusDays(1), T0.plusDays(1), false);
+        index.put(ITEM, 102L, 102L, T0.plusDays(2), T0.plusDays(3), true);
+
+        assertThat(index.prune(T0)).isEqualTo(99);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.lastApproved(ITEM, T0)).get().extracting(ItemBookingShortView::id).isEqualTo(100L);
+        assertThat(index.nextApproved(ITEM, T0)).get().extracting(ItemBookingShortView::id).isEqualTo(102L);
+        assertThat(index.isFree(ITEM, T0, T0.plusDays(1))).isFalse();
+        assertThat(index.isFree(ITEM, T0.plusDays(1), T0.plusDays(2))).isTrue();
+        assertThat(index.nextFreeSlot(ITEM, T0, Duration.ofDays(1))).isEqualTo(T0.plusDays(1));
+        assertThat(index.prune(T0)).isZero();
+    }
+
+    @Test
+    void pruneShouldDropEndedWaitingBookings() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+        index.put(ITEM, 1L, 100L, T0.minusDays(3), T0.minusDays(2), false);
+        index.put(ITEM, 2L, 100L, T0.minusDays(2), T0.minusDays(1), false);
+
+        assertThat(index.prune(ITEM, T0)).isEqualTo(2);
+        assertThat(index.size()).isZero();
+        assertThat(index.lastApproved(ITEM, T0)).isEmpty();
+        assertThat(index.prune(2L, T0)).isZero();
+    }
+
+    @Test
+    void emptyTimelineShouldBeDroppedAndRecreatedOnNextPut() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+        index.put(ITEM, 1L, 100L, T0.minusDays(2), T0.minusDays(1), false);
+        index.put(2L, 2L, 100L, T0.plusDays(1), T0.plusDays(2), false);
+
+        index.prune(T0);
+        assertThat(index.itemCount()).isEqualTo(1);
+
+        index.remove(2L, 2L);
+        assertThat(index.itemCount()).isZero();
+
+        index.put(ITEM, 3L, 100L, T0.plusDays(1), T0.plusDays(2), true);
+        assertThat(index.itemCount()).isEqualTo(1);
+        assertThat(index.isFree(ITEM, T0.plusDays(1), T0.plusDays(2))).isFalse();
+    }
+
+    @Test
+    void concurrentPutAndPruneShouldNotLoseBookings() throws Exception {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex();
+        int rounds = 10_000;
+        Thread pruner = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                index.prune(ITEM, T0);
+            }
+        });
+        pruner.start();
+        for (long id = 1; id <= rounds; id++) {
+            // закончившаяся неподтверждённая бронь опустошает ленту при каждом prune
+            index.put(ITEM, id, 100L, T0.minusDays(2), T0.minusDays(1), false);
+            index.remove(ITEM, id);
+        }
+        index.put(ITEM, rounds + 1, 100L, T0.plusDays(1), T0.plusDays(2), true);
+        pruner.join();
+
+        assertThat(index.isFree(ITEM, T0.plusDays(1), T0.plusDays(2))).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.common;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.sql.slow-query-threshold=0ms")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SqlMonitorTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void responseShouldCarrySqlCountAndTime() throws Exception {
+        MvcResult created = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sql\",\"email\":\"sql-headers@mail.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-SQL-Time"))
+                .andReturn();
+
+        assertThat(Integer.parseInt(created.getResponse().getHeader("X-SQL-Count"))).isPositive();
+    }
+
+    @Test
+    void responseWithoutBodyShouldStillCarrySqlCount() throws Exception {
+        MvcResult created = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sql\",\"email\":\"sql-delete@mail.com\"}"))
+                .andReturn();
+        Number id = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+
+        mockMvc.perform(delete("/users/{id}", id.longValue()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-SQL-Count"));
+    }
+
+    @Test
+    void slowQueryShouldBeLoggedWithBindParameters(CapturedOutput output) throws Exception {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sql\",\"email\":\"sql-slow@mail.com\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(output.getOut()).contains("Slow SQL").contains("sql-slow@mail.com");
+    }
+}
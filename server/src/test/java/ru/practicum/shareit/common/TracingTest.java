@@ -0,0 +1,131 @@
+package ru.practicum.shareit.common;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.common.tracing.TracingConfig;
+import ru.practicum.shareit.common.tracing.TracingProperties;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class TracingTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String GATEWAY_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private InMemorySpanExporter spans;
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Test
+    void requestShouldContinueGatewayTraceWithServiceAndJdbcSpans() throws Exception {
+        mockMvc.perform(post("/users")
+                        .header("traceparent", "00-" + TRACE_ID + "-" + GATEWAY_SPAN_ID + "-01")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Trace\",\"email\":\"trace@mail.com\"}"))
+                .andExpect(status().isOk());
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        List<SpanData> trace = spans.getFinishedSpanItems().stream()
+                .filter(span -> span.getTraceId().equals(TRACE_ID))
+                .toList();
+
+        SpanData request = single(trace, span -> span.getKind() == SpanKind.SERVER);
+        assertThat(request.getParentSpanId()).isEqualTo(GATEWAY_SPAN_ID);
+
+        // транзакция берёт соединение до вызова метода, поэтому спан сервиса лежит внутри спана соединения
+        SpanData service = single(trace, span -> span.getName().equals("user-service-impl#create"));
+        SpanData connection = byId(trace, service.getParentSpanId());
+        assertThat(connection.getName()).isEqualTo("connection");
+        assertThat(connection.getParentSpanId()).isEqualTo(request.getSpanId());
+
+        assertThat(trace)
+                .filteredOn(span -> span.getName().equals("query"))
+                .isNotEmpty()
+                .allSatisfy(query -> assertThat(query.getParentSpanId()).isEqualTo(service.getSpanId()));
+    }
+
+    @Test
+    void fileExporterShouldWriteOtlpJsonLines(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("traces").resolve("spans.jsonl");
+        Logger logger = Logger.getLogger(OtlpJsonLoggingSpanExporter.class.getName());
+        SpanExporter exporter = new TracingConfig().otlpJsonSpanExporter(new TracingProperties(file));
+        try {
+            exporter.export(List.of(TestSpanData.builder()
+                    .setName("GET /bookings/owner")
+                    .setKind(SpanKind.SERVER)
+                    .setSpanContext(SpanContext.create(TRACE_ID, GATEWAY_SPAN_ID, TraceFlags.getSampled(),
+                            TraceState.getDefault()))
+                    .setStartEpochNanos(1)
+                    .setEndEpochNanos(2)
+                    .setHasEnded(true)
+                    .setStatus(StatusData.ok())
+                    .build()));
+        } finally {
+            for (Handler handler : logger.getHandlers()) {
+                logger.removeHandler(handler);
+                handler.close();
+            }
+            logger.setUseParentHandlers(true);
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).startsWith("{\"resource\"")
+                .contains("\"traceId\":\"" + TRACE_ID + "\"")
+                .contains("GET /bookings/owner");
+    }
+
+    private static SpanData single(List<SpanData> spans, Predicate<SpanData> filter) {
+        List<SpanData> found = spans.stream().filter(filter).toList();
+        assertThat(found).as("спаны трассы: %s", spans.stream().map(SpanData::getName).toList()).hasSize(1);
+        return found.get(0);
+    }
+
+    private static SpanData byId(List<SpanData> spans, String spanId) {
+        return single(spans, span -> span.getSpanId().equals(spanId));
+    }
+
+    @TestConfiguration
+    static class InMemorySpans {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
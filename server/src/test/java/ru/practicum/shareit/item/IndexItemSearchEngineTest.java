@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IndexItemSearchEngineTest {
+
+    @Test
+    void shouldWarmUpFromRepositoryAndApplyChangeEvents() {
+        ItemRepository repository = mock(ItemRepository.class);
+        Item drill = Item.builder().id(1L).name("Drill").description("Tool").available(true).build();
+        when(repository.findAllBy(any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(drill), PageRequest.of(0, 1000), false));
+
+        IndexItemSearchEngine engine = new IndexItemSearchEngine(repository, new ItemSearchProperties("index", 100));
+        engine.warmUp();
+
+        assertThat(engine.searchAvailable("dri")).extracting(Item::getId).containsExactly(1L);
+
+        engine.onItemChanged(new ItemChangedEvent(1L, "Drill", "Tool", false, null));
+        engine.onItemChanged(new ItemChangedEvent(2L, "Hammer drill", "Heavy", true, 5L));
+
+        List<Item> found = engine.searchAvailable("drill");
+        assertThat(found).extracting(Item::getId).containsExactly(2L);
+        assertThat(found.get(0).getRequest().getId()).isEqualTo(5L);
+        verify(repository, times(1)).findAllBy(any(PageRequest.class));
+    }
+}
@@ -6,15 +6,26 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.controller.ItemETagConfig;
+import ru.practicum.shareit.item.controller.ItemVersionAdvice;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemsVersion;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
+@Import(ItemETagConfig.class)
 public class ItemControllerTest {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
@@ -34,6 +46,53 @@ public class ItemControllerTest {
 
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemImportService itemImportService;
+    @MockBean
+    private ItemsVersion itemsVersion;
+
+    @Test
+    void importShouldPassRequestStreamToService() throws Exception {
+        ItemImportResultDto result = new ItemImportResultDto();
+        result.setImported(1);
+        result.setFailed(1);
+        result.getErrors().add(new ItemImportErrorDto(2, "Название не может быть пустым"));
+        ArgumentCaptor<InputStream> body = ArgumentCaptor.forClass(InputStream.class);
+        when(itemImportService.importItems(eq(10L), body.capture())).thenAnswer(invocation -> {
+            assertThat(new String(body.getValue().readAllBytes(), StandardCharsets.UTF_8)).startsWith("{\"name\"");
+            return result;
+        });
+
+        mockMvc.perform(post("/items/import")
+                        .header(USER_ID_HEADER, "10")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Drill\"}\n{\"name\":\"\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+    }
+
+    @Test
+    void exportAllShouldWriteNdjsonWithoutETag() throws Exception {
+        ItemDto item = new ItemDto();
+        item.setId(1L);
+        item.setName("Drill");
+        doAnswer(invocation -> {
+            Consumer<ItemDto> sink = invocation.getArgument(1);
+            sink.accept(item);
+            return null;
+        }).when(itemService).exportAll(eq(10L), any());
+
+        mockMvc.perform(get("/items/export")
+                        .header(USER_ID_HEADER, "10")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1,\"name\":\"Drill\",\"description\":null,\"available\":null,"
+                        + "\"requestId\":null,\"lastBooking\":null,\"nextBooking\":null,\"comments\":null}\n"))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
 
     @Test
     void addShouldReturn200AndCallService() throws Exception {
@@ -119,6 +178,31 @@ public class ItemControllerTest {
         verify(itemService).getById(10L, 7L);
     }
 
+    @Test
+    void getByIdShouldReturn304WhenBodyIsUnchanged() throws Exception {
+        ItemDto response = new ItemDto();
+        response.setId(7L);
+        response.setName("Drill");
+        when(itemService.getById(10L, 7L)).thenReturn(response);
+
+        String etag = mockMvc.perform(get("/items/7")
+                        .header(USER_ID_HEADER, "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/items/7")
+                        .header(USER_ID_HEADER, "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        response.setName("Drill XL");
+        mockMvc.perform(get("/items/7")
+                        .header(USER_ID_HEADER, "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Drill XL"));
+    }
+
     @Test
     void getAllShouldReturn200AndCallService() throws Exception {
         ItemDto i1 = new ItemDto();
@@ -169,6 +253,35 @@ public class ItemControllerTest {
         verify(itemService).search(null);
     }
 
+    @Test
+    void searchShouldCarryItemsVersionReadBeforeSearch() throws Exception {
+        when(itemsVersion.current()).thenReturn(7L, 8L);
+        when(itemService.search("drill")).thenReturn(List.of());
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill"))
+                .andExpect(header().string(ItemVersionAdvice.HEADER, "7"));
+
+        verify(itemsVersion, times(1)).current();
+    }
+
+    @Test
+    void updateShouldCarryItemsVersionReadAfterUpdate() throws Exception {
+        ItemDto response = new ItemDto();
+        response.setId(5L);
+        when(itemService.update(eq(10L), eq(5L), any(ItemDto.class))).thenAnswer(invocation -> {
+            when(itemsVersion.current()).thenReturn(8L);
+            return response;
+        });
+
+        mockMvc.perform(patch("/items/5")
+                        .header(USER_ID_HEADER, "10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Drill\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemVersionAdvice.HEADER, "8"));
+    }
+
     @Test
     void addCommentShouldReturn200AndCallService() throws Exception {
         CommentCreateDto request = new CommentCreateDto();
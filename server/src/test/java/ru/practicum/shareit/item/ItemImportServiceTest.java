@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ItemImportServiceTest {
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importShouldSaveValidNdjsonRowsAndReportTheRest() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        User requestor = userRepository.save(User.builder().name("Requestor").email("req@mail.com").build());
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Need a drill")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+
+        String ndjson = String.join("\n",
+                "{\"name\":\"Drill\",\"description\":\"Powerful\",\"available\":true}",
+                "{\"name\":\" \",\"description\":\"No name\",\"available\":true}",
+                "{\"name\":\"Saw\",\"description\":\"Sharp\",\"available\":\"maybe\"}",
+                "{\"name\":\"Hammer\",\"description\":\"Heavy\",\"available\":false,\"requestId\":" + request.getId() + "}",
+                "{\"name\":\"Ladder\",\"description\":\"Tall\",\"available\":true,\"requestId\":999999}",
+                "{\"id\":777,\"name\":\"Axe\",\"description\":\"Old\",\"available\":true}");
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(ndjson));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(ItemImportErrorDto::getRow).containsExactlyInAnyOrder(2L, 3L, 5L);
+        assertThat(result.getErrors()).extracting(ItemImportErrorDto::getError)
+                .contains("Название не может быть пустым", "Запрос с id = 999999 не найден");
+
+        List<Item> saved = itemRepository.findAllByOwnerIdOrderByIdAsc(owner.getId());
+        assertThat(saved).extracting(Item::getName).containsExactly("Drill", "Hammer", "Axe");
+        assertThat(saved.get(1).getRequest().getId()).isEqualTo(request.getId());
+        assertThat(saved).extracting(Item::getId).doesNotContain(777L);
+    }
+
+    @Test
+    void importShouldInsertJsonArrayInJdbcBatches() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        String json = IntStream.rangeClosed(1, 120)
+                .mapToObj(i -> "{\"name\":\"Item " + i + "\",\"description\":\"Desc\",\"available\":true}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(json));
+
+        assertThat(result.getImported()).isEqualTo(120);
+        assertThat(result.getErrors()).isEmpty();
+        // 3 пакета вставок по 50 строк и несколько обращений к items_seq вместо 120 отдельных insert
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        assertThat(itemRepository.findAllByOwnerIdOrderByIdAsc(owner.getId())).hasSize(120);
+    }
+
+    @Test
+    void importShouldKeepRowsBeforeMalformedJson() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        String ndjson = "{\"name\":\"Drill\",\"description\":\"Powerful\",\"available\":true}\n{\"name\":\"Saw\",";
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(ndjson));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getRow()).isEqualTo(2));
+    }
+
+    @Test
+    void importShouldValidateLengthsWithBeanValidation() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        String ndjson = String.join("\n",
+                "{\"name\":\"" + "x".repeat(256) + "\",\"description\":\"Long name\",\"available\":true}",
+                "{\"name\":\"Drill\",\"description\":\"" + "x".repeat(1025) + "\",\"available\":true}",
+                "{\"name\":\"\",\"description\":\"\"}");
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(ndjson));
+
+        assertThat(result.getImported()).isZero();
+        assertThat(result.getErrors()).extracting(ItemImportErrorDto::getError).containsExactly(
+                "Название длиннее 255 символов",
+                "Описание длиннее 1024 символов",
+                "Название не может быть пустым; Не указана доступность вещи; Описание не может быть пустым");
+    }
+
+    // DDL в H2 завершает транзакцию, поэтому тест работает без общей транзакции и сам удаляет данные
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importShouldReportRowRangeOfChunkFailedInDatabase() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("import-failure@mail.com").build());
+        String json = IntStream.rangeClosed(1, 2500)
+                .mapToObj(i -> "{\"name\":\"" + (i == 1500 ? "Broken" : "Item " + i)
+                        + "\",\"description\":\"Desc\",\"available\":true}")
+                .collect(Collectors.joining(",", "[", "]"));
+        jdbcTemplate.execute("ALTER TABLE items ADD CONSTRAINT chk_test_item_name CHECK (name <> 'Broken')");
+        try {
+            ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(json));
+
+            assertThat(result.getImported()).isEqualTo(1500);
+            assertThat(result.getFailed()).isEqualTo(1000);
+            assertThat(result.getErrors()).singleElement().satisfies(error -> {
+                assertThat(error.getRow()).isEqualTo(1001);
+                assertThat(error.getError()).isEqualTo("Строки 1001–2000 не сохранены из-за ошибки базы данных");
+            });
+            assertThat(itemRepository.findAllByOwnerIdOrderByIdAsc(owner.getId()))
+                    .extracting(Item::getName)
+                    .startsWith("Item 1")
+                    .contains("Item 1000", "Item 2001")
+                    .doesNotContain("Item 1001", "Item 2000");
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE items DROP CONSTRAINT chk_test_item_name");
+            jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+            userRepository.delete(owner);
+        }
+    }
+
+    @Test
+    void importShouldFailForUnknownOwner() {
+        assertThatThrownBy(() -> itemImportService.importItems(999L, stream("[]")))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.SqlAssertions.assertStatementsAtMost;
+import static ru.practicum.shareit.SqlAssertions.countStatements;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ItemQueryCountTest {
+    private static final int ITEMS = 30;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void getAllShouldNotDependOnNumberOfItems() {
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@mail.com").build());
+        User single = userRepository.save(User.builder().name("Single").email("single@mail.com").build());
+        User many = userRepository.save(User.builder().name("Many").email("many@mail.com").build());
+        saveItems(single, booker, 1);
+        saveItems(many, booker, ITEMS);
+        entityManager.flush();
+        entityManager.clear();
+
+        int forOneItem = countStatements(() -> itemService.getAll(single.getId()));
+        assertThat(forOneItem).isPositive();
+        entityManager.clear();
+
+        List<ItemDto> items = assertStatementsAtMost(forOneItem, () -> itemService.getAll(many.getId()));
+
+        assertThat(items).hasSize(ITEMS);
+        assertThat(items).allSatisfy(item -> {
+            assertThat(item.getLastBooking()).isNotNull();
+            assertThat(item.getNextBooking()).isNotNull();
+            assertThat(item.getComments()).hasSize(1);
+        });
+    }
+
+    @Test
+    void getByIdShouldUseConstantNumberOfStatements() {
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@mail.com").build());
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        Item item = saveItems(owner, booker, 1).get(0);
+        for (int i = 0; i < ITEMS; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("Comment" + i).item(item).author(booker).created(LocalDateTime.now().minusHours(i)).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // пользователь, карточка вещи, брони, комментарии
+        ItemDto card = assertStatementsAtMost(4, () -> itemService.getById(owner.getId(), item.getId()));
+
+        assertThat(card.getComments()).hasSizeGreaterThan(1);
+        assertThat(card.getLastBooking()).isNotNull();
+    }
+
+    private List<Item> saveItems(User owner, User booker, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Item" + i).description("desc").available(true).owner(owner).build());
+            bookingRepository.save(Booking.builder()
+                    .item(item).booker(booker).start(now.minusDays(2)).end(now.minusDays(1))
+                    .status(BookingStatus.APPROVED).build());
+            bookingRepository.save(Booking.builder()
+                    .item(item).booker(booker).start(now.plusDays(1)).end(now.plusDays(2))
+                    .status(BookingStatus.APPROVED).build());
+            commentRepository.save(Comment.builder()
+                    .text("Comment" + i).item(item).author(booker).created(now).build());
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        index.index(new Document(1L, "Дрель", "Аккумуляторная дрель", true, null));
+        index.index(new Document(2L, "Отвёртка", "Почти как дрель", true, 7L));
+        index.index(new Document(3L, "Дрель PRO", "Недоступна", false, null));
+        index.index(new Document(4L, "Пила", "Ручная", true, null));
+    }
+
+    @Test
+    void searchShouldMatchSubstringIgnoringCaseAndSkipUnavailable() {
+        assertThat(index.search("ДРЕЛ", 10))
+                .extracting(Document::id)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void searchShouldRankNameMatchesFirstAndRespectLimit() {
+        index.index(new Document(0L, "Набор", "дрель и биты", true, null));
+
+        assertThat(index.search("дрель", 10)).extracting(Document::id).containsExactly(1L, 0L, 2L);
+        assertThat(index.search("дрель", 2)).extracting(Document::id).containsExactly(1L, 0L);
+    }
+
+    @Test
+    void searchShouldHandleShortQueries() {
+        assertThat(index.search("ил", 10)).extracting(Document::id).containsExactly(4L);
+    }
+
+    @Test
+    void searchShouldNotMatchTrigramsSpreadAcrossDocument() {
+        // все триграммы запроса есть в документе, но не подряд
+        index.index(new Document(5L, "abcd", "bcde", true, null));
+
+        assertThat(index.search("abcde", 10)).isEmpty();
+    }
+
+    @Test
+    void indexShouldReplacePreviousVersionOfDocument() {
+        index.index(new Document(1L, "Молоток", "Стальной", true, null));
+        index.index(new Document(3L, "Дрель PRO", "Снова доступна", true, null));
+
+        assertThat(index.search("дрель", 10)).extracting(Document::id).containsExactly(3L, 2L);
+        assertThat(index.search("молот", 10)).extracting(Document::id).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void removeShouldDropDocument() {
+        index.remove(2L);
+
+        assertThat(index.search("дрель", 10)).extracting(Document::id).containsExactly(1L);
+        assertThat(index.search("", 10)).isEmpty();
+    }
+
+    @Test
+    void searchShouldIntersectRareTrigramWithLongPostingLists() {
+        // «ель» есть в тысячах вещей, «ижн» — в двух: короткий список ищется в длинном двоичным поиском
+        for (long id = 100; id < 5_100; id++) {
+            index.index(new Document(id, "Ель " + id, "Хвойная", id % 2 == 0, null));
+        }
+        index.index(new Document(10_000L, "Ель нижняя", "", true, null));
+        index.index(new Document(10_001L, "Ель книжная", "", false, null));
+
+        assertThat(index.search("ель нижн", 10)).extracting(Document::id).containsExactly(10_000L);
+        assertThat(index.search("ижн", 10)).extracting(Document::id).containsExactly(10_000L);
+    }
+}
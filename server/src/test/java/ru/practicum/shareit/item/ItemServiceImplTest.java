@@ -9,6 +9,7 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -17,7 +18,9 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -36,6 +39,21 @@ public class ItemServiceImplTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Test
+    void exportAllShouldPassOwnerItemsInIdOrder() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        User other = userRepository.save(User.builder().name("Other").email("other@mail.com").build());
+        Item drill = itemRepository.save(Item.builder().name("Drill").description("Powerful").available(true).owner(owner).build());
+        Item saw = itemRepository.save(Item.builder().name("Saw").description("Sharp").available(false).owner(owner).build());
+        itemRepository.save(Item.builder().name("Foreign").description("Not mine").available(true).owner(other).build());
+
+        List<ItemDto> exported = new ArrayList<>();
+        itemService.exportAll(owner.getId(), exported::add);
+
+        assertThat(exported).extracting(ItemDto::getId).containsExactly(drill.getId(), saw.getId());
+        assertThat(exported.get(1).getAvailable()).isFalse();
+    }
+
     @Test
     void getAllShouldReturnItemsWithNextBookingAndComments() {
         User owner = userRepository.save(User.builder()
@@ -97,6 +115,33 @@ public class ItemServiceImplTest {
         assertThat(dto.getNextBooking().getId()).isNotNull();
     }
 
+    @Test
+    void getAllShouldPickOneLastAndNextApprovedBookingPerItem() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@mail.com").build());
+        Item drill = itemRepository.save(Item.builder()
+                .name("Drill").description("Powerful").available(true).owner(owner).build());
+        Item saw = itemRepository.save(Item.builder()
+                .name("Saw").description("Sharp").available(true).owner(owner).build());
+
+        LocalDateTime now = LocalDateTime.now();
+        saveBooking(drill, booker, now.minusDays(5), BookingStatus.APPROVED);
+        Booking drillLast = saveBooking(drill, booker, now.minusDays(2), BookingStatus.APPROVED);
+        saveBooking(drill, booker, now.minusDays(1), BookingStatus.REJECTED);
+        Booking drillNext = saveBooking(drill, booker, now.plusDays(1), BookingStatus.APPROVED);
+        saveBooking(drill, booker, now.plusDays(3), BookingStatus.APPROVED);
+        Booking sawNext = saveBooking(saw, booker, now.plusDays(2), BookingStatus.APPROVED);
+
+        List<ItemDto> result = itemService.getAll(owner.getId());
+
+        assertThat(result).extracting(ItemDto::getId).containsExactly(drill.getId(), saw.getId());
+        assertThat(result.get(0).getLastBooking().getId()).isEqualTo(drillLast.getId());
+        assertThat(result.get(0).getLastBooking().getBookerId()).isEqualTo(booker.getId());
+        assertThat(result.get(0).getNextBooking().getId()).isEqualTo(drillNext.getId());
+        assertThat(result.get(1).getLastBooking()).isNull();
+        assertThat(result.get(1).getNextBooking().getId()).isEqualTo(sawNext.getId());
+    }
+
     @Test
     void createShouldSaveItem() {
         User owner = userRepository.save(User.builder()
@@ -236,6 +281,56 @@ public class ItemServiceImplTest {
         assertThat(dto.getNextBooking()).isNull();
     }
 
+    @Test
+    void getByIdShouldReturnCardWithNearestBookingsAndLatestCommentsFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@mail.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill").description("Powerful").available(true).owner(owner).build());
+
+        saveBooking(item, booker, now.minusDays(4), BookingStatus.APPROVED);
+        Booking last = saveBooking(item, booker, now.minusDays(2), BookingStatus.APPROVED);
+        Booking next = saveBooking(item, booker, now.plusDays(1), BookingStatus.APPROVED);
+        saveBooking(item, booker, now.plusDays(2), BookingStatus.APPROVED);
+        saveBooking(item, booker, now.plusHours(1), BookingStatus.WAITING);
+
+        CommentCreateDto first = new CommentCreateDto();
+        first.setText("First");
+        itemService.addComment(booker.getId(), item.getId(), first);
+        CommentCreateDto second = new CommentCreateDto();
+        second.setText("Second");
+        itemService.addComment(booker.getId(), item.getId(), second);
+
+        ItemDto dto = itemService.getById(owner.getId(), item.getId());
+
+        assertThat(dto.getName()).isEqualTo("Drill");
+        assertThat(dto.getAvailable()).isTrue();
+        assertThat(dto.getLastBooking().getId()).isEqualTo(last.getId());
+        assertThat(dto.getLastBooking().getBookerId()).isEqualTo(booker.getId());
+        assertThat(dto.getLastBooking().getStart()).isNotNull();
+        assertThat(dto.getNextBooking().getId()).isEqualTo(next.getId());
+        assertThat(dto.getComments()).extracting(CommentDto::getText).containsExactly("Second", "First");
+        assertThat(dto.getComments()).extracting(CommentDto::getAuthorName).containsOnly("Booker");
+    }
+
+    @Test
+    void getByIdShouldFailForUnknownUserOrItem() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill").description("Powerful").available(true).owner(owner).build());
+
+        assertThatThrownBy(() -> itemService.getById(999_999L, item.getId()))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("Пользователь");
+        assertThatThrownBy(() -> itemService.getById(999_999L, 999_999L))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("Пользователь");
+        assertThatThrownBy(() -> itemService.getById(owner.getId(), 999_999L))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("Вещь");
+    }
+
     @Test
     void searchShouldReturnOnlyAvailableAndMatchTextIgnoreBlankText() {
         User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
@@ -262,6 +357,29 @@ public class ItemServiceImplTest {
         assertThat(itemService.search(null)).isEmpty();
     }
 
+    @Test
+    void searchShouldRankNameMatchesBeforeDescriptionMatches() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
+
+        Item byDescription = itemRepository.save(Item.builder()
+                .name("Screwdriver")
+                .description("Works like a drill")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Item byName = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Powerful tool")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        assertThat(itemService.search("DRILL"))
+                .extracting(ItemDto::getId)
+                .containsExactly(byName.getId(), byDescription.getId());
+    }
+
     @Test
     void addCommentShouldFailWithoutCompletedApprovedBooking() {
         User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.com").build());
@@ -290,4 +408,14 @@ public class ItemServiceImplTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Комментарий можно оставить только после завершённой аренды");
     }
+
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(1))
+                .status(status)
+                .build());
+    }
 }
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.item.service.ItemsVersion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemsVersionTest {
+    @Autowired
+    private ItemsVersion itemsVersion;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void versionShouldGrowOncePerCommittedTransaction() {
+        long before = itemsVersion.current();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event(1L));
+            eventPublisher.publishEvent(event(2L));
+            assertThat(itemsVersion.current()).isEqualTo(before);
+        });
+
+        assertThat(itemsVersion.current()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void rolledBackTransactionShouldNotChangeVersion() {
+        long before = itemsVersion.current();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event(1L));
+            status.setRollbackOnly();
+        });
+
+        assertThat(itemsVersion.current()).isEqualTo(before);
+    }
+
+    private static ItemChangedEvent event(long itemId) {
+        return new ItemChangedEvent(itemId, "Drill", "Powerful", true, null);
+    }
+}
@@ -184,6 +184,33 @@ public class ItemRequestServiceImplTest {
         assertThat(dto.getItems().get(0).getName()).isEqualTo("Drill");
     }
 
+    @Test
+    void getETagShouldChangeWhenAnswerIsAddedOrRenamed() {
+        User requestor = saveUser("Req", "req@mail.com");
+        User owner = saveUser("Owner", "owner@mail.com");
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Need drill")
+                .requestor(requestor)
+                .created(java.time.LocalDateTime.now().minusMinutes(1))
+                .build());
+
+        String empty = requestService.getETag(requestor.getId(), request.getId());
+        assertThat(requestService.getETag(requestor.getId(), request.getId())).isEqualTo(empty);
+
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Powerful")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+        String answered = requestService.getETag(requestor.getId(), request.getId());
+        assertThat(answered).isNotEqualTo(empty);
+
+        item.setName("Drill XL");
+        assertThat(requestService.getETag(requestor.getId(), request.getId())).isNotEqualTo(answered);
+    }
+
     @Test
     void getByIdShouldFailWhenRequestNotFound() {
         User user = saveUser("User", "user@mail.com");
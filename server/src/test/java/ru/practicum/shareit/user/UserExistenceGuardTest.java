@@ -0,0 +1,112 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceGuard;
+import ru.practicum.shareit.user.service.UserExistenceGuardProperties;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class UserExistenceGuardTest {
+    private static final UserExistenceGuardProperties ENABLED = new UserExistenceGuardProperties(true);
+    private static final UserExistenceGuardProperties DISABLED = new UserExistenceGuardProperties(false);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void disabledGuardShouldAskRepositoryForEveryUser() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findById(7L)).thenReturn(Optional.of(User.builder().id(7L).build()));
+
+        UserExistenceGuard guard = new UserExistenceGuard(repository, DISABLED);
+        guard.warmUp();
+
+        // пользователь другого экземпляра: в множестве его нет, но выключенный охранник ему не мешает
+        assertThat(guard.exists(7L)).isTrue();
+        assertThat(guard.exists(8L)).isFalse();
+        verify(repository, never()).findAllIds();
+    }
+
+    @Test
+    void unknownUsersShouldNotHitRepository() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllIds()).thenReturn(LongStream.rangeClosed(1, 5000).boxed().toList());
+
+        UserExistenceGuard guard = new UserExistenceGuard(repository, ENABLED);
+        guard.warmUp();
+
+        assertThat(LongStream.rangeClosed(5001, 10_000)).noneMatch(guard::exists);
+        assertThatThrownBy(() -> guard.requireExists(8000L))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("Пользователь с id = 8000 не найден");
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    void knownUserShouldBeConfirmedByRepository() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllIds()).thenReturn(List.of(7L));
+        when(repository.findById(7L)).thenReturn(Optional.of(User.builder().id(7L).build()), Optional.empty());
+
+        UserExistenceGuard guard = new UserExistenceGuard(repository, ENABLED);
+        guard.warmUp();
+
+        assertThat(guard.exists(7L)).isTrue();
+        // удалён другим запросом, ещё не дошедшим до коммита, или вставка откатилась
+        assertThat(guard.exists(7L)).isFalse();
+        verify(repository, times(2)).findById(7L);
+    }
+
+    @Test
+    void registeredUserShouldBeKnownBeforeCommit() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllIds()).thenReturn(List.of());
+        when(repository.findById(7L)).thenReturn(Optional.of(User.builder().id(7L).build()));
+
+        UserExistenceGuard guard = new UserExistenceGuard(repository, ENABLED);
+        guard.warmUp();
+        TransactionSynchronizationManager.initSynchronization();
+        guard.registered(7L);
+
+        assertThat(guard.exists(7L)).isTrue();
+    }
+
+    @Test
+    void removedUserShouldBeForgottenOnlyAfterCommit() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllIds()).thenReturn(LongStream.rangeClosed(1, 100).boxed().toList());
+        when(repository.findById(anyLong())).thenAnswer(call ->
+                Optional.of(User.builder().id(call.getArgument(0)).build()));
+
+        UserExistenceGuard guard = new UserExistenceGuard(repository, ENABLED);
+        guard.warmUp();
+        TransactionSynchronizationManager.initSynchronization();
+        LongStream.rangeClosed(1, 100).filter(id -> id % 2 == 0).forEach(guard::removed);
+
+        assertThat(guard.exists(42L)).isTrue();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(guard.exists(42L)).isFalse();
+        assertThat(guard.exists(43L)).isTrue();
+        verify(repository, times(2)).findById(anyLong());
+    }
+}